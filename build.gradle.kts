@@ -1,6 +1,7 @@
 plugins {
     id("java")
     id("java-library")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "oop.project.cli"
@@ -10,12 +11,56 @@ repositories {
     mavenCentral()
 }
 
+// The Vector API delimiter scanner is compiled on its own against the
+// incubator module and loaded reflectively, so the main code still builds and
+// runs, scanning one char at a time, on JVMs started without the module.
+val vector: SourceSet by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+}
+
+tasks.named<JavaCompile>(vector.compileJavaTaskName) {
+    options.compilerArgs.addAll(listOf("--add-modules", "jdk.incubator.vector"))
+}
+
+tasks.jar {
+    from(vector.output)
+}
+
 dependencies {
     api("com.google.guava:guava:33.1.0-jre")
     testImplementation(platform("org.junit:junit-bom:5.9.1"))
     testImplementation("org.junit.jupiter:junit-jupiter")
+    testAnnotationProcessor(project(":processor"))
+    jmhAnnotationProcessor(project(":processor"))
+    testRuntimeOnly(vector.output)
+    "jmhRuntimeOnly"(vector.output)
 }
 
 tasks.test {
     useJUnitPlatform()
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+}
+
+// Benchmarks live in src/jmh/java and run with `./gradlew jmh`; results are
+// written to build/results/jmh/results.json.
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(2)
+    warmupIterations.set(5)
+    warmup.set("1s")
+    iterations.set(5)
+    timeOnIteration.set("1s")
+    profilers.add("gc")
+    jvmArgs.add("--add-modules=jdk.incubator.vector")
+    resultFormat.set("JSON")
+    // Run a subset with e.g. `./gradlew jmh -Pjmh.includes=StressBenchmark`.
+    (project.findProperty("jmh.includes") as String?)?.let { includes.add(it) }
+}
+
+// Measures CommandServer latency under many concurrent connections, e.g.
+// `./gradlew serverLoadTest --args="7000 10000 100"`; with no arguments it
+// starts a server in-process.
+tasks.register<JavaExec>("serverLoadTest") {
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("oop.project.cli.ServerLoadTest")
 }
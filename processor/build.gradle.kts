@@ -0,0 +1,9 @@
+plugins {
+    id("java")
+}
+
+group = "oop.project.cli"
+version = "1.0-SNAPSHOT"
+
+// The processor reads the annotations by name, so it has no dependency on the
+// main project and can be applied to any source set that uses them.
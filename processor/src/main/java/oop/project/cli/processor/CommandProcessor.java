@@ -0,0 +1,436 @@
+package oop.project.cli.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a parser for each type annotated with
+ * {@code oop.project.cli.annotation.Command}. The generated parser matches the
+ * command name, flags and argument positions with hard-coded comparisons and
+ * assigns each value straight into a typed local, so parsing does no lookups,
+ * reflection or boxing beyond what the declared types require.
+ */
+@SupportedAnnotationTypes(CommandProcessor.COMMAND)
+public final class CommandProcessor extends AbstractProcessor {
+
+    static final String COMMAND = "oop.project.cli.annotation.Command";
+    static final String POSITIONAL = "oop.project.cli.annotation.Positional";
+    static final String FLAG = "oop.project.cli.annotation.Flag";
+
+    private static final String RUNTIME = "oop.project.cli.";
+
+    /*
+     * An annotated field or record component. Flag is null for positional
+     * arguments, and value is the type converted from the input, which is the
+     * type argument of an Optional.
+     */
+    private static final class Member {
+        String name;
+        String flag;
+        TypeMirror type;
+        TypeMirror value;
+        boolean optional;
+        String converter;
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.RECORD && element.getKind() != ElementKind.CLASS) {
+                    error(element, "@Command must be placed on a record or class");
+                    continue;
+                }
+                try {
+                    generate((TypeElement) element);
+                } catch (IOException e) {
+                    error(element, "Could not write parser: " + e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        for (Element e = type; e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                error(type, "@Command types must not be private");
+                return;
+            }
+        }
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)
+                && type.getKind() != ElementKind.RECORD) {
+            error(type, "@Command classes must be static if nested");
+            return;
+        }
+        List<Member> members = members(type);
+        if (members == null) {
+            return;
+        }
+        String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String simpleName = parserName(type);
+        String qualified = pkg.isEmpty() ? simpleName : pkg + "." + simpleName;
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(qualified, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(source(type, pkg, simpleName, stringValue(type, COMMAND, type.getSimpleName().toString()), members));
+        }
+    }
+
+    /*
+     * Collects the annotated record components or fields of type in
+     * declaration order, reporting an error and returning null if any is
+     * unsupported.
+     */
+    private List<Member> members(TypeElement type) {
+        List<Element> candidates = new ArrayList<>();
+        if (type.getKind() == ElementKind.RECORD) {
+            candidates.addAll(type.getRecordComponents());
+        } else {
+            boolean constructor = false;
+            for (Element element : type.getEnclosedElements()) {
+                if (element.getKind() == ElementKind.FIELD) {
+                    candidates.add(element);
+                } else if (element.getKind() == ElementKind.CONSTRUCTOR
+                        && ((ExecutableElement) element).getParameters().isEmpty()
+                        && !element.getModifiers().contains(Modifier.PRIVATE)) {
+                    constructor = true;
+                }
+            }
+            if (!constructor || type.getModifiers().contains(Modifier.ABSTRACT)) {
+                error(type, "@Command classes need a non-private no-argument constructor");
+                return null;
+            }
+        }
+        List<Member> members = new ArrayList<>();
+        boolean valid = true;
+        int converters = 0;
+        for (Element element : candidates) {
+            boolean positional = mirror(element, POSITIONAL) != null;
+            boolean flag = mirror(element, FLAG) != null;
+            if (!positional && !flag) {
+                if (type.getKind() == ElementKind.RECORD) {
+                    error(element, "Record components of a @Command must be @Positional or @Flag");
+                    valid = false;
+                }
+                continue;
+            } else if (positional && flag) {
+                error(element, "Cannot be both @Positional and @Flag");
+                valid = false;
+                continue;
+            }
+            Set<Modifier> modifiers = element.getModifiers();
+            if (element.getKind() == ElementKind.FIELD && (modifiers.contains(Modifier.PRIVATE)
+                    || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC))) {
+                error(element, "Annotated fields must not be private, final or static");
+                valid = false;
+                continue;
+            }
+            Member member = new Member();
+            member.name = element.getSimpleName().toString();
+            member.flag = flag ? stringValue(element, FLAG, "") : null;
+            if (member.flag != null && member.flag.isEmpty()) {
+                member.flag = member.name;
+            }
+            member.type = element.asType();
+            member.value = member.type;
+            if (member.type.getKind() == TypeKind.DECLARED && isType(member.type, "java.util.Optional")) {
+                List<? extends TypeMirror> arguments = ((DeclaredType) member.type).getTypeArguments();
+                if (positional || arguments.size() != 1) {
+                    error(element, "Only flags may be Optional, and must have a type argument");
+                    valid = false;
+                    continue;
+                }
+                member.optional = true;
+                member.value = arguments.get(0);
+            }
+            TypeMirror value = member.value;
+            if (isBoolean(value)) {
+                if (positional) {
+                    error(element, "Positional arguments cannot be boolean");
+                    valid = false;
+                }
+            } else if (value.getKind() == TypeKind.DECLARED) {
+                if (!((DeclaredType) value).getTypeArguments().isEmpty()) {
+                    error(element, "Generic argument types are not supported");
+                    valid = false;
+                } else if (!isType(value, "java.lang.String") && builtin(value) == null) {
+                    if (!isConvertible(value)) {
+                        error(element, "No built-in converter for " + value
+                                + "; use String, a number, a date or time type, or an enum");
+                        valid = false;
+                    }
+                    member.converter = "CONVERTER_" + converters++;
+                }
+            } else if (builtin(value) == null) {
+                error(element, "Unsupported argument type " + value);
+                valid = false;
+            }
+            members.add(member);
+        }
+        return valid ? members : null;
+    }
+
+    /*
+     * Returns the built-in converter and the method that reads it for types
+     * stored as a long or double, such as numbers and dates, or null for
+     * other types.
+     */
+    private static String[] builtin(TypeMirror type) {
+        String name = type.getKind().isPrimitive() ? type.getKind().name() : type.toString();
+        switch (name) {
+            case "INT", "java.lang.Integer":
+                return new String[]{"INT", "Long", "(int) tokens.longValue()"};
+            case "LONG", "java.lang.Long":
+                return new String[]{"LONG", "Long", "tokens.longValue()"};
+            case "DOUBLE", "java.lang.Double":
+                return new String[]{"DOUBLE", "Double", "tokens.doubleValue()"};
+            case "FLOAT", "java.lang.Float":
+                return new String[]{"DOUBLE", "Double", "(float) tokens.doubleValue()"};
+            case "java.time.LocalDate":
+                return new String[]{"LOCAL_DATE", "Long", RUNTIME + "Converters.LOCAL_DATE.box(tokens.longValue())"};
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isBoolean(TypeMirror type) {
+        return type.getKind() == TypeKind.BOOLEAN || isType(type, "java.lang.Boolean");
+    }
+
+    /*
+     * Returns true if the default ConverterRegistry has, or creates, a
+     * converter for the object type, so that the generated lookup cannot fail.
+     */
+    private static boolean isConvertible(TypeMirror type) {
+        return ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM
+                || isType(type, "java.time.LocalDateTime") || isType(type, "java.time.Instant")
+                || isType(type, "java.time.Duration");
+    }
+
+    private String source(TypeElement type, String pkg, String simpleName, String command, List<Member> members) {
+        String target = type.getQualifiedName().toString();
+        StringBuilder out = new StringBuilder();
+        if (!pkg.isEmpty()) {
+            out.append("package ").append(pkg).append(";\n\n");
+        }
+        out.append("/**\n * Parses the {@code ").append(command).append("} command into a {@link ").append(target)
+                .append("}.\n * Generated from its annotations; do not edit.\n */\n");
+        out.append("@javax.annotation.processing.Generated(\"").append(CommandProcessor.class.getName()).append("\")\n");
+        out.append("public final class ").append(simpleName).append(" {\n\n");
+        for (Member member : members) {
+            if (member.converter != null) {
+                String erased = processingEnv.getTypeUtils().erasure(member.value).toString();
+                out.append("    private static final ").append(RUNTIME).append("Converter<").append(erased).append("> ")
+                        .append(member.converter).append(" = converter(").append(erased).append(".class);\n");
+            }
+        }
+        out.append("\n    private ").append(simpleName).append("() {}\n\n");
+        out.append("    /**\n     * Returns the parsed command, or null if the input is invalid.\n     */\n");
+        out.append("    public static ").append(target).append(" parse(CharSequence input) {\n");
+        out.append("        return parse(input, new ").append(RUNTIME).append("TokenStream());\n    }\n\n");
+        out.append("    /**\n     * Parses using tokens as scratch space, which may be reused for the next input.\n     */\n");
+        out.append("    public static ").append(target).append(" parse(CharSequence input, ").append(RUNTIME)
+                .append("TokenStream tokens) {\n");
+        out.append("        if (!tokens.tokenize(input) || tokens.count() == 0 || tokens.kind(0) != ").append(RUNTIME)
+                .append("TokenStream.WORD\n                || !tokens.matches(0, ").append(literal(command))
+                .append(")) {\n            return null;\n        }\n");
+        int positionals = 0;
+        for (Member member : members) {
+            out.append("        ").append(member.type).append(" v_").append(member.name).append(" = ")
+                    .append(initial(member)).append(";\n");
+        }
+        out.append("        int position = 0;\n");
+        out.append("        int count = tokens.count();\n");
+        out.append("        for (int i = 1; i < count; i++) {\n");
+        out.append("            byte kind = tokens.kind(i);\n");
+        out.append("            if (kind == ").append(RUNTIME).append("TokenStream.FLAG) {\n");
+        String keyword = "if";
+        for (Member member : members) {
+            if (member.flag == null) {
+                continue;
+            }
+            out.append("                ").append(keyword).append(" (tokens.matches(i, ").append(literal(member.flag))
+                    .append(")) {\n");
+            if (isBoolean(member.value)) {
+                out.append("                    v_").append(member.name)
+                        .append(member.optional ? " = java.util.Optional.of(true);\n" : " = true;\n");
+            } else {
+                out.append("                    if (++i >= count || tokens.kind(i) != ").append(RUNTIME)
+                        .append("TokenStream.QUOTED) {\n                        return null;\n                    }\n");
+                convert(out, "                    ", member);
+            }
+            keyword = "} else if";
+        }
+        if (keyword.equals("if")) {
+            out.append("                return null;\n");
+        } else {
+            out.append("                } else {\n                    return null;\n                }\n");
+        }
+        out.append("            } else if (kind == ").append(RUNTIME).append("TokenStream.QUOTED) {\n");
+        out.append("                switch (position++) {\n");
+        for (Member member : members) {
+            if (member.flag != null) {
+                continue;
+            }
+            out.append("                    case ").append(positionals++).append(":\n");
+            convert(out, "                        ", member);
+            out.append("                        break;\n");
+        }
+        out.append("                    default:\n                        return null;\n                }\n");
+        out.append("            } else {\n                return null;\n            }\n        }\n");
+        out.append("        if (position != ").append(positionals).append(") {\n            return null;\n        }\n");
+        if (type.getKind() == ElementKind.RECORD) {
+            out.append("        return new ").append(target).append("(");
+            for (int i = 0; i < members.size(); i++) {
+                out.append(i == 0 ? "" : ", ").append("v_").append(members.get(i).name);
+            }
+            out.append(");\n");
+        } else {
+            out.append("        ").append(target).append(" result = new ").append(target).append("();\n");
+            for (Member member : members) {
+                out.append("        result.").append(member.name).append(" = v_").append(member.name).append(";\n");
+            }
+            out.append("        return result;\n");
+        }
+        out.append("    }\n");
+        if (members.stream().anyMatch(member -> member.converter != null)) {
+            out.append("\n    private static <T> ").append(RUNTIME).append("Converter<T> converter(Class<T> type) {\n");
+            out.append("        ").append(RUNTIME).append("Converter<T> converter = new ").append(RUNTIME)
+                    .append("ConverterRegistry().get(type);\n");
+            out.append("        if (converter == null) {\n            throw new IllegalStateException(\"No converter for \" + type);\n        }\n");
+            out.append("        return converter;\n    }\n");
+        }
+        out.append("\n}\n");
+        return out.toString();
+    }
+
+    /*
+     * Writes the conversion of token i into the local of member, returning
+     * null from the parser if the value is invalid.
+     */
+    private static void convert(StringBuilder out, String indent, Member member) {
+        String local = "v_" + member.name;
+        String[] builtin = builtin(member.value);
+        String value;
+        if (builtin != null) {
+            out.append(indent).append("if (!tokens.convert").append(builtin[1]).append("(i, ").append(RUNTIME)
+                    .append("Converters.").append(builtin[0]).append(")) {\n")
+                    .append(indent).append("    return null;\n").append(indent).append("}\n");
+            value = builtin[2];
+        } else {
+            String converter = member.converter != null ? member.converter : RUNTIME + "Converters.STRING";
+            value = "value_" + member.name;
+            out.append(indent).append(member.value).append(' ').append(value).append(" = tokens.convert(i, ")
+                    .append(converter).append(");\n");
+            out.append(indent).append("if (").append(value).append(" == null) {\n")
+                    .append(indent).append("    return null;\n").append(indent).append("}\n");
+        }
+        if (member.optional) {
+            value = "java.util.Optional.of(" + value + ")";
+        }
+        out.append(indent).append(local).append(" = ").append(value).append(";\n");
+    }
+
+    private static String initial(Member member) {
+        if (member.optional) {
+            return "java.util.Optional.empty()";
+        }
+        if (isBoolean(member.type)) {
+            return "false";
+        }
+        switch (member.type.getKind()) {
+            case INT:
+            case LONG:
+                return "0";
+            case FLOAT:
+            case DOUBLE:
+                return "0.0";
+            default:
+                return "null";
+        }
+    }
+
+    /*
+     * Names the parser after the type, joining the names of enclosing types
+     * with underscores so that nested types get distinct parsers.
+     */
+    private static String parserName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName()).append("Parser");
+        for (Element e = type.getEnclosingElement(); e.getKind() != ElementKind.PACKAGE; e = e.getEnclosingElement()) {
+            name.insert(0, e.getSimpleName() + "_");
+        }
+        return name.toString();
+    }
+
+    private static String literal(String value) {
+        StringBuilder out = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        return out.append('"').toString();
+    }
+
+    private static boolean isType(TypeMirror type, String name) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(name);
+    }
+
+    private static AnnotationMirror mirror(Element element, String annotation) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation)) {
+                return mirror;
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Returns the value attribute of the annotation on element, or fallback if
+     * it is not set.
+     */
+    private static String stringValue(Element element, String annotation, String fallback) {
+        AnnotationMirror mirror = mirror(element, annotation);
+        if (mirror != null) {
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                if (entry.getKey().getSimpleName().contentEquals("value")) {
+                    return (String) entry.getValue().getValue();
+                }
+            }
+        }
+        return fallback;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+}
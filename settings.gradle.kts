@@ -1,2 +1,3 @@
 rootProject.name = "CliParser"
 
+include("processor")
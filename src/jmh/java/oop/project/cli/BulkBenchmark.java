@@ -0,0 +1,58 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures CompiledParser.parseAll over a large list of command lines, to
+ * compare against parsing the same lines in a loop on one thread, and
+ * CompiledParser.parseTable, which stores the same lines by column. Run with
+ * the gc profiler to compare the bytes allocated per line.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkBenchmark {
+
+    @Param({"100000"})
+    public int lineCount;
+
+    private CompiledParser parser;
+    private List<String> lines;
+
+    @Setup
+    public void setup() {
+        parser = new CliParser("scheduleEvent", false)
+                .addArg(LocalDate.class).addArg(String.class)
+                .addFlag("location", String.class).addFlag("reminder", Integer.class)
+                .compile();
+        lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            lines.add("scheduleEvent --location \"Room " + i % 10 + "\" --reminder \"" + i % 60 + "\" \"2023-11-25\" \"Meeting\"");
+        }
+    }
+
+    @Benchmark
+    public List<ParseResult> sequential() {
+        List<ParseResult> results = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            results.add(parser.parseResult(line));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public List<ParseResult> parseAll() {
+        return parser.parseAll(lines);
+    }
+
+    @Benchmark
+    public CommandTable parseTable() {
+        return parser.parseTable(lines);
+    }
+
+}
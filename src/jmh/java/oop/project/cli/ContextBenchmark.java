@@ -0,0 +1,39 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing the numeric and subcommand scenarios into a new
+ * ParseResult with parsing into the reused Command of a per-thread
+ * ParseContext. The gc profiler's alloc.rate.norm shows the bytes allocated
+ * per parse, which is zero for the context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextBenchmark {
+
+    @Param({"add \"1\" \"2\"", "sub --left \"1.0\" \"2.0\"", "sqrt \"4\"", "calc sqrt"})
+    public String input;
+
+    private final CommandRegistry registry = Scenarios.registry();
+
+    @Benchmark
+    public Command parseResult() {
+        return registry.parseResult(input).getCommand();
+    }
+
+    @Benchmark
+    public Command context() {
+        return registry.parse(input, ParseContext.forCurrentThread());
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Command contextMultiThreaded() {
+        return registry.parse(input, ParseContext.forCurrentThread());
+    }
+
+}
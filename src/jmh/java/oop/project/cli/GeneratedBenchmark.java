@@ -0,0 +1,46 @@
+package oop.project.cli;
+
+import oop.project.cli.annotation.Command;
+import oop.project.cli.annotation.Flag;
+import oop.project.cli.annotation.Positional;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a parser generated from an annotated record with the equivalent
+ * CompiledParser read through the typed accessors, for the scheduleEvent
+ * scenario.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeneratedBenchmark {
+
+    @Command("scheduleEvent")
+    record ScheduleEvent(@Positional LocalDate date, @Positional String title,
+                         @Flag Optional<String> location, @Flag Optional<Integer> reminder) {}
+
+    private static final String INPUT = "scheduleEvent --location \"Conference Room A\" --reminder \"15\" \"2023-11-25\" \"Meeting\"";
+
+    private final CompiledParser parser = new CliParser("scheduleEvent", false)
+            .addArg(LocalDate.class).addArg(String.class)
+            .addFlag("location", String.class).addFlag("reminder", Integer.class).compile();
+    private final TokenStream tokens = new TokenStream();
+
+    @Benchmark
+    public ScheduleEvent generated() {
+        return GeneratedBenchmark_ScheduleEventParser.parse(INPUT, tokens);
+    }
+
+    @Benchmark
+    public ScheduleEvent compiled() {
+        oop.project.cli.Command command = parser.parseResult(INPUT).getCommand();
+        return new ScheduleEvent(command.get(0, LocalDate.class), command.getString(1),
+                command.hasFlag("location") ? Optional.of(command.getString("location")) : Optional.empty(),
+                command.hasFlag("reminder") ? Optional.of(command.getInt("reminder")) : Optional.empty());
+    }
+
+}
@@ -0,0 +1,74 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to stream a block of lines through a ParseProcessor into
+ * a subscriber that requests everything, for several batch sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProcessorBenchmark {
+
+    private static final int LINES = 100_000;
+
+    @Param({"1", "64", "1024"})
+    public int batchSize;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public long stream() throws InterruptedException {
+        ParseProcessor processor = new ParseProcessor(Scenarios.registry(), executor, batchSize);
+        CountDownLatch done = new CountDownLatch(1);
+        long[] successes = new long[1];
+        processor.subscribe(new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ParseResult item) {
+                successes[0] += item.isSuccess() ? 1 : 0;
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+        try (SubmissionPublisher<String> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (int i = 0; i < LINES; i++) {
+                publisher.submit(i % 10 == 0 ? "sqrt \"x\"" : "add \"1\" \"2\"");
+            }
+        }
+        done.await();
+        return successes[0];
+    }
+
+}
@@ -0,0 +1,78 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Scenarios.parse for a valid and an invalid input of every scenario,
+ * on one thread and on all available cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ScenariosBenchmark {
+
+    private static final Map<String, String> INPUTS = Map.ofEntries(
+            Map.entry("add", "add \"1\" \"2\""),
+            Map.entry("add-invalid", "add \"one\" \"two\""),
+            Map.entry("sub", "sub --left \"1.0\" \"2.0\""),
+            Map.entry("sub-invalid", "sub --flag \"1.0\" \"2.0\""),
+            Map.entry("sqrt", "sqrt \"4\""),
+            Map.entry("sqrt-invalid", "sqrt \"4\" \"5\""),
+            Map.entry("calc", "calc sqrt"),
+            Map.entry("calc-invalid", "calc unknown"),
+            Map.entry("date", "date \"2024-01-01\""),
+            Map.entry("date-invalid", "date \"20240401\""),
+            Map.entry("registerUser", "registerUser --password \"pass1234\" \"johnDoe\" \"jdoe@gmail.com\""),
+            Map.entry("registerUser-invalid", "registerUser \"jdoe@gmail.com\""),
+            Map.entry("fileOperation", "fileOperation --force \"example.txt\""),
+            Map.entry("fileOperation-invalid", "fileOperation --force"),
+            Map.entry("setUserRole", "setUserRole --role \"admin\" --expires \"2023-12-31\" \"john_doe\""),
+            Map.entry("setUserRole-invalid", "setUserRole --role \"admin\""),
+            Map.entry("processData", "processData --validate --clean \"data.csv\""),
+            Map.entry("processData-invalid", "processData --validate --clean"),
+            Map.entry("scheduleEvent", "scheduleEvent --location \"Conference Room A\" --reminder \"15\" \"2023-11-25\" \"Meeting\""),
+            Map.entry("scheduleEvent-invalid", "scheduleEvent --reminder \"15\" \"Meeting\"")
+    );
+
+    @Param({
+            "add", "add-invalid", "sub", "sub-invalid", "sqrt", "sqrt-invalid", "calc", "calc-invalid",
+            "date", "date-invalid", "registerUser", "registerUser-invalid", "fileOperation",
+            "fileOperation-invalid", "setUserRole", "setUserRole-invalid", "processData",
+            "processData-invalid", "scheduleEvent", "scheduleEvent-invalid"
+    })
+    public String scenario;
+
+    private String input;
+    private PrintStream stdout;
+
+    @Setup
+    public void setup() {
+        input = INPUTS.get(scenario);
+        // Invalid inputs print an error message; discard it so the benchmark
+        // does not measure console output.
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public Object singleThreaded() {
+        return Scenarios.parse(input);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object multiThreaded() {
+        return Scenarios.parse(input);
+    }
+
+}
@@ -0,0 +1,102 @@
+package oop.project.cli;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A load-test client for CommandServer. Opens the given number of concurrent
+ * connections, each sending requests one at a time and waiting for the
+ * response, and reports the p50, p99 and max round trip latency. Run with
+ * {@code ./gradlew serverLoadTest --args="<port | socket path> [connections] [requests]"}
+ * against a server started with {@code Main --serve}, or with no address or -
+ * to start one in-process. Ten thousand connections need a file descriptor limit
+ * above that on both sides.
+ */
+public class ServerLoadTest {
+
+    private static final byte[] REQUEST =
+            "scheduleEvent --location \"Conference Room A\" --reminder \"15\" \"2023-11-25\" \"Meeting\"\n"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        CommandServer server = null;
+        SocketAddress address;
+        if (args.length > 0 && !args[0].equals("-")) {
+            address = args[0].chars().allMatch(Character::isDigit)
+                    ? new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))
+                    : UnixDomainSocketAddress.of(args[0]);
+        } else {
+            server = new CommandServer(Scenarios.registry(), Scenarios::toMap, connections);
+            address = server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            CommandServer started = server;
+            Thread thread = new Thread(() -> {
+                try {
+                    started.serve();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong failures = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(connections);
+        long start = System.nanoTime();
+        ExecutorService executor = CommandServer.newPerTaskExecutor();
+        for (int i = 0; i < connections; i++) {
+            executor.execute(() -> {
+                try {
+                    run(address, requests, latency);
+                } catch (IOException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        if (server != null) {
+            server.close();
+        }
+        System.out.printf("connections=%d requests=%d failed connections=%d%n", connections, latency.count(), failures.get());
+        System.out.printf("throughput=%.0f req/s%n", latency.count() / (elapsed / 1e9));
+        System.out.printf("p50=%dus p99=%dus max=%dus%n", TimeUnit.NANOSECONDS.toMicros(latency.percentile(50)),
+                TimeUnit.NANOSECONDS.toMicros(latency.percentile(99)), TimeUnit.NANOSECONDS.toMicros(latency.max()));
+    }
+
+    private static void run(SocketAddress address, int requests, LatencyHistogram latency) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            ByteBuffer response = ByteBuffer.allocate(4096);
+            for (int i = 0; i < requests; i++) {
+                long start = System.nanoTime();
+                ByteBuffer request = ByteBuffer.wrap(REQUEST);
+                while (request.hasRemaining()) {
+                    channel.write(request);
+                }
+                response.clear();
+                while (response.position() == 0 || response.get(response.position() - 1) != '\n') {
+                    if (channel.read(response) < 0) {
+                        throw new IOException("Connection closed");
+                    }
+                }
+                latency.record(System.nanoTime() - start);
+            }
+        }
+    }
+
+}
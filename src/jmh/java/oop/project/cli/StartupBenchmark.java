@@ -0,0 +1,54 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of getting from nothing to the first parsed command for a
+ * tree of many subcommands, each with many flags, when every subparser is
+ * built and compiled up front and when each is added with a supplier and only
+ * the one that is used is built.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+public class StartupBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int subcommands;
+
+    @Benchmark
+    public Command eager() {
+        CliParser root = new CliParser("tool", true);
+        for (int i = 0; i < subcommands; i++) {
+            root.addSubparser(subparser("command" + i));
+        }
+        return root.compile().parse(input());
+    }
+
+    @Benchmark
+    public Command lazy() {
+        CliParser root = new CliParser("tool", true);
+        for (int i = 0; i < subcommands; i++) {
+            String name = "command" + i;
+            root.addSubparser(name, () -> subparser(name));
+        }
+        return root.compile().parse(input());
+    }
+
+    private String input() {
+        return "tool command" + (subcommands - 1) + " --option7 \"42\" \"first\"";
+    }
+
+    private static CliParser subparser(String name) {
+        CliParser parser = new CliParser(name, false).addArg(String.class);
+        for (int j = 0; j < 50; j++) {
+            parser.addFlag("option" + j, j % 2 == 0 ? null : Integer.class);
+        }
+        return parser;
+    }
+
+}
@@ -0,0 +1,105 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures CompiledParser.parseResult on synthetic command shapes: many flags,
+ * long quoted values and deep subcommand chains.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StressBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ManyFlags {
+
+        @Param({"3", "100", "300"})
+        public int flagCount;
+
+        CompiledParser parser;
+        String input;
+
+        @Setup
+        public void setup() {
+            CliParser builder = new CliParser("many", false).addArg(String.class);
+            for (int i = 0; i < flagCount; i++) {
+                builder.addFlag("option" + i, i % 2 == 0 ? Integer.class : null);
+            }
+            parser = builder.compile();
+            input = "many --option0 \"0\" --option" + (flagCount / 2 * 2 - 2) + " \"1\" --option"
+                    + (flagCount - flagCount % 2 - 1) + " \"value\"";
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class LongValue {
+
+        @Param({"16", "1024", "65536"})
+        public int valueLength;
+
+        CompiledParser parser;
+        String input;
+
+        @Setup
+        public void setup() {
+            parser = new CliParser("payload", false).addFlag("data", String.class).addArg(String.class).compile();
+            StringBuilder value = new StringBuilder(valueLength);
+            for (int i = 0; i < valueLength; i++) {
+                value.append(i % 8 == 7 ? ' ' : (char) ('a' + i % 26));
+            }
+            input = "payload --data \"" + value + "\" \"" + value + "\"";
+        }
+
+    }
+
+    @State(Scope.Benchmark)
+    public static class DeepChain {
+
+        @Param({"1", "16", "64"})
+        public int depth;
+
+        CompiledParser parser;
+        String input;
+
+        @Setup
+        public void setup() {
+            CliParser root = new CliParser("level0", false);
+            CliParser parent = root;
+            StringBuilder line = new StringBuilder("level0");
+            for (int i = 1; i <= depth; i++) {
+                CliParser child = new CliParser("level" + i, i < depth).addFlag("verbose", null).addArg(Integer.class);
+                parent.addSubparser(child);
+                parent = child;
+                line.append(" level").append(i).append(" --verbose \"").append(i).append('"');
+            }
+            parser = root.compile();
+            input = line.toString();
+        }
+
+    }
+
+    @Benchmark
+    public ParseResult manyFlags(ManyFlags state) {
+        return state.parser.parseResult(state.input);
+    }
+
+    @Benchmark
+    public ParseResult longValue(LongValue state) {
+        return state.parser.parseResult(state.input);
+    }
+
+    @Benchmark
+    public ParseResult deepChain(DeepChain state) {
+        return state.parser.parseResult(state.input);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public ParseResult manyFlagsMultiThreaded(ManyFlags state) {
+        return state.parser.parseResult(state.input);
+    }
+
+}
@@ -0,0 +1,46 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures suggesting the closest flag names for a misspelled flag as the
+ * number of flags grows, for a typo one edit away from a flag and for one
+ * too far from every flag, which has to search the most.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class SuggestBenchmark {
+
+    @Param({"1000", "10000", "50000"})
+    public int flags;
+
+    private CompiledParser parser;
+
+    @Setup
+    public void setup() {
+        CliParser builder = new CliParser("tool", false);
+        for (int i = 0; i < flags; i++) {
+            builder.addFlag("option" + i, null);
+        }
+        parser = builder.compile();
+        // Builds the index, so that only lookups are measured.
+        parser.parseResult("tool --optoin1").getSuggestions();
+    }
+
+    @Benchmark
+    public List<String> near() {
+        return parser.parseResult("tool --opiton" + (flags / 2)).getSuggestions();
+    }
+
+    @Benchmark
+    public List<String> far() {
+        return parser.parseResult("tool --qwertyuiop").getSuggestions();
+    }
+
+}
@@ -0,0 +1,37 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written ISO date converter with LocalDate.parse, for
+ * valid dates and for invalid ones, where LocalDate.parse throws.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TemporalBenchmark {
+
+    @Param({"2023-11-25", "2023-02-30", "20231125"})
+    public String input;
+
+    private final long[] out = new long[1];
+
+    @Benchmark
+    public boolean converter() {
+        return TemporalConverters.LOCAL_DATE.convertLong(input, 0, input.length(), out, 0);
+    }
+
+    @Benchmark
+    public LocalDate localDateParse() {
+        try {
+            return LocalDate.parse(input);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+}
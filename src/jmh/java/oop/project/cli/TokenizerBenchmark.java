@@ -0,0 +1,53 @@
+package oop.project.cli;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares tokenizing a command with one long quoted value, such as inline
+ * JSON or base64, when delimiters are found one char at a time and with the
+ * Vector API scanner, across value lengths, for String input and for UTF-8
+ * bytes in a heap buffer. The vector case falls back to the scalar scanner,
+ * and measures the same, if the JVM is started without jdk.incubator.vector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenizerBenchmark {
+
+    @Param({"16", "256", "4096", "65536"})
+    public int length;
+
+    @Param({"string", "bytes"})
+    public String source;
+
+    private CharSequence input;
+    private final Tokens tokens = new Tokens();
+
+    @Setup
+    public void setup() {
+        StringBuilder value = new StringBuilder(length);
+        for (int i = 0; value.length() < length; i++) {
+            value.append(i % 500 == 499 ? "\\\"" : "QUJD".substring(i % 4, i % 4 + 1));
+        }
+        String line = "post --id \"42\" --body \"" + value + "\" \"done\"";
+        input = source.equals("string") ? line
+                : new ByteCharSequence(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)), 0, line.length());
+    }
+
+    @Benchmark
+    public int scalar() {
+        Tokenizer.tokenize(input, 0, input.length(), tokens, DelimiterScanner.SCALAR);
+        return tokens.count;
+    }
+
+    @Benchmark
+    public int vector() {
+        Tokenizer.tokenize(input, 0, input.length(), tokens, DelimiterScanner.INSTANCE);
+        return tokens.count;
+    }
+
+}
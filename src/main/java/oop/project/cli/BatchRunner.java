@@ -0,0 +1,143 @@
+package oop.project.cli;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Runs a handler over every line of an input channel using a pool of worker
+ * threads, writing one line of output per input line in the original order.
+ * Input is read through a large buffer and split into chunks of lines, each
+ * chunk is handled and formatted on a worker, and finished chunks are written
+ * to the output stream in order.
+ */
+public class BatchRunner {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int CHUNK_LINES = 4096;
+
+    private final Function<String, Object> handler;
+    private final int threads;
+
+    /**
+     * Constructs a BatchRunner that applies handler to each line on the given
+     * number of worker threads.
+     */
+    public BatchRunner(Function<String, Object> handler, int threads) {
+        this.handler = handler;
+        this.threads = threads;
+    }
+
+    /**
+     * Reads lines from in until the end of input or a line containing only
+     * "exit", and writes the result of each line to out. The output stream is
+     * flushed but not closed.
+     */
+    public void run(ReadableByteChannel in, OutputStream out) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<Future<byte[]>> pending = new ArrayDeque<>();
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            List<String> chunk = new ArrayList<>(CHUNK_LINES);
+            boolean done = false;
+            while (!done) {
+                boolean eof = in.read(buffer) < 0;
+                byte[] bytes = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < buffer.position() && !done; i++) {
+                    if (bytes[i] == '\n') {
+                        done = addLine(chunk, bytes, lineStart, i);
+                        lineStart = i + 1;
+                        if (chunk.size() == CHUNK_LINES) {
+                            submit(executor, pending, chunk, out);
+                            chunk = new ArrayList<>(CHUNK_LINES);
+                        }
+                    }
+                }
+                if (eof && !done && lineStart < buffer.position()) {
+                    addLine(chunk, bytes, lineStart, buffer.position());
+                    lineStart = buffer.position();
+                }
+                done |= eof;
+                if (done && !chunk.isEmpty()) {
+                    submit(executor, pending, chunk, out);
+                }
+                buffer.limit(buffer.position()).position(lineStart);
+                buffer.compact();
+                if (!buffer.hasRemaining()) {
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+                }
+            }
+            while (!pending.isEmpty()) {
+                write(pending.removeFirst(), out);
+            }
+            out.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /*
+     * Adds the line bytes[start, end) to chunk, dropping a trailing carriage
+     * return. Returns true if the line asks to stop.
+     */
+    private static boolean addLine(List<String> chunk, byte[] bytes, int start, int end) {
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        String line = new String(bytes, start, end - start, StandardCharsets.UTF_8);
+        if (line.equals("exit")) {
+            return true;
+        }
+        chunk.add(line);
+        return false;
+    }
+
+    /*
+     * Submits a chunk to the workers, first writing out the oldest finished
+     * chunks if too many are in flight so memory stays bounded.
+     */
+    private void submit(ExecutorService executor, Deque<Future<byte[]>> pending, List<String> chunk,
+                        OutputStream out) throws IOException {
+        while (pending.size() >= threads * 2) {
+            write(pending.removeFirst(), out);
+        }
+        pending.addLast(executor.submit(() -> format(chunk)));
+    }
+
+    private byte[] format(List<String> chunk) {
+        StringBuilder builder = new StringBuilder(chunk.size() * 64);
+        for (String line : chunk) {
+            try {
+                builder.append(handler.apply(line)).append('\n');
+            } catch (Exception e) {
+                builder.append("Unexpected exception: ").append(e.getClass().getName())
+                        .append(", ").append(e.getMessage()).append('\n');
+            }
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void write(Future<byte[]> result, OutputStream out) throws IOException {
+        try {
+            out.write(result.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for results", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+}
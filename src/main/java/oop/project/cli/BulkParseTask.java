@@ -0,0 +1,54 @@
+package oop.project.cli;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Parses a range of inputs on the fork-join pool, splitting it in half until
+ * it is small enough to parse directly. Each leaf reuses one token buffer for
+ * all of its inputs. When failing fast, firstFailure holds the lowest index of
+ * an invalid input found so far and inputs after it are skipped.
+ */
+@SuppressWarnings("serial")
+final class BulkParseTask extends RecursiveAction {
+
+    private static final int LEAF_SIZE = 256;
+
+    private final CompiledParser parser;
+    private final String[] inputs;
+    private final ParseResult[] results;
+    private final int from;
+    private final int to;
+    private final AtomicInteger firstFailure;
+
+    BulkParseTask(CompiledParser parser, String[] inputs, ParseResult[] results, int from, int to,
+                  AtomicInteger firstFailure) {
+        this.parser = parser;
+        this.inputs = inputs;
+        this.results = results;
+        this.from = from;
+        this.to = to;
+        this.firstFailure = firstFailure;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from > LEAF_SIZE) {
+            int middle = (from + to) >>> 1;
+            invokeAll(new BulkParseTask(parser, inputs, results, from, middle, firstFailure),
+                    new BulkParseTask(parser, inputs, results, middle, to, firstFailure));
+            return;
+        }
+        Tokens tokens = new Tokens();
+        for (int i = from; i < to; i++) {
+            if (firstFailure != null && i > firstFailure.get()) {
+                return;
+            }
+            results[i] = parser.parseResult(inputs[i], tokens);
+            if (firstFailure != null && !results[i].isSuccess()) {
+                firstFailure.accumulateAndGet(i, Math::min);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package oop.project.cli;
+
+/**
+ * How {@link CompiledParser#parseAll(java.util.List, BulkPolicy)} handles
+ * invalid inputs.
+ */
+public enum BulkPolicy {
+
+    /**
+     * Stop at the first invalid input. The results end with its failure, and
+     * inputs after it are not parsed.
+     */
+    FAIL_FAST,
+
+    /**
+     * Parse every input and return a result for each, including failures.
+     */
+    COLLECT_ALL
+
+}
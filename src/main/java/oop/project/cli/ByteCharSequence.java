@@ -0,0 +1,76 @@
+package oop.project.cli;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * A CharSequence view over a range of UTF-8 bytes in a ByteBuffer, used to run
+ * the tokenizer and converters directly over bytes without decoding them. Each
+ * byte is exposed as one char, which is exact for the ASCII characters that
+ * make up the command syntax, names and numbers. Text is decoded as UTF-8 only
+ * when toString is called, so only the values that are materialized pay for
+ * decoding. The view reads the buffer with absolute gets and can be pointed at
+ * a new range with reset, so one instance can serve every line of a file.
+ */
+final class ByteCharSequence implements CharSequence {
+
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+
+    ByteCharSequence() {}
+
+    ByteCharSequence(ByteBuffer buffer, int offset, int length) {
+        reset(buffer, offset, length);
+    }
+
+    ByteCharSequence reset(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /*
+     * Returns the index in the buffer of the first char of this view.
+     */
+    int offset() {
+        return offset;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return (char) (buffer.get(offset + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("[" + start + ", " + end + ")");
+        }
+        return new ByteCharSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        if (buffer.hasArray()) {
+            return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
@@ -1,12 +1,13 @@
 package oop.project.cli;
 
-import java.text.ParseException;
-import java.time.LocalDate;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Used to construct a command parser and parse an input string into a
@@ -18,10 +19,14 @@ public class CliParser {
     private final Set<Flag> flags;
     private final List<Object> args;
     private final Set<CliParser> subparsers;
+    private final Map<String, LazySubparser> lazySubparsers;
     private final boolean subcommandRequired;
-    private static final String ERROR_FORMAT = "Error: Invalid command format";
-    private static final String ERROR_FLAG = "Error: Invalid flag";
-    private static final String ERROR_ARG = "Error: Invalid argument";
+    private ConverterRegistry converters;
+    private ParserMetrics metrics;
+    private boolean lazy;
+    private final Set<Integer> eagerArgs;
+    private final Set<String> eagerFlags;
+    private CompiledParser compiled;
 
     /**
      * Constructs a CliParser used to parse an input string into the specified format.
@@ -34,33 +39,112 @@ public class CliParser {
         flags = new HashSet<>();
         args = new ArrayList<>();
         subparsers = new HashSet<>();
+        lazySubparsers = new HashMap<>();
+        eagerArgs = new HashSet<>();
+        eagerFlags = new HashSet<>();
     }
 
     /**
      * Adds a flag to the parser.
-     * Takes the name of the flag and an object of the desired argument type, or null if
-     * there should be no argument.
+     * Takes the name of the flag and an object of the desired argument type, the Class
+     * of that type or a Converter, or null if there should be no argument.
      */
     public CliParser addFlag(String name, Object arg) {
         flags.add(new Flag(name, arg));
+        compiled = null;
         return this;
     }
 
+    /**
+     * Adds a flag to the parser whose argument is converted and validated while
+     * parsing even if the parser is lazy.
+     */
+    public CliParser addFlag(String name, Object arg, boolean eager) {
+        if (eager) {
+            eagerFlags.add(name);
+        }
+        return addFlag(name, arg);
+    }
+
     /**
      * Adds an argument to the parser.
-     * Takes an object of the desired argument type.
+     * Takes an object of the desired argument type, the Class of that type or a Converter.
      */
     public CliParser addArg(Object arg) {
         args.add(arg);
+        compiled = null;
         return this;
     }
 
+    /**
+     * Adds an argument to the parser that is converted and validated while
+     * parsing even if the parser is lazy.
+     */
+    public CliParser addArg(Object arg, boolean eager) {
+        if (eager) {
+            eagerArgs.add(args.size());
+        }
+        return addArg(arg);
+    }
+
     /**
      * Adds a subparser used to parse a subcommand.
      * An object of the desired argument type should be passed in.
      */
     public CliParser addSubparser(CliParser subparser) {
         subparsers.add(subparser);
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Adds a subparser that is built by supplier only when its name first
+     * appears in an input, and compiled and cached from then on, so large
+     * command trees cost nothing at startup for the subcommands that are not
+     * used. The supplier must return a parser with the given name, and may be
+     * called from any thread that parses. Subtrees loaded this way should use
+     * ASCII command and flag names if they parse byte input.
+     */
+    public CliParser addSubparser(String name, Supplier<CliParser> supplier) {
+        lazySubparsers.put(name, new LazySubparser(name, supplier));
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Registers the converter used by this parser for arguments of the given type.
+     * Subparsers keep their own registrations.
+     */
+    public <T> CliParser registerConverter(Class<T> type, Converter<? extends T> converter) {
+        if (converters == null) {
+            converters = new ConverterRegistry(ConverterRegistry.DEFAULTS);
+        }
+        converters.register(type, converter);
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Sets whether argument values are converted lazily. A lazy parser only
+     * checks the structure of the input and keeps the raw text of each value;
+     * the value is converted the first time it is read from the Command and
+     * then memoized, and an invalid value makes that read throw
+     * IllegalArgumentException. Arguments added with eager set to true are
+     * still validated while parsing. Subparsers have their own setting.
+     */
+    public CliParser setLazy(boolean lazy) {
+        this.lazy = lazy;
+        compiled = null;
+        return this;
+    }
+
+    /**
+     * Records parses made with this parser, as a root command, in metrics.
+     * Pass null to stop recording.
+     */
+    public CliParser withMetrics(ParserMetrics metrics) {
+        this.metrics = metrics;
+        compiled = null;
         return this;
     }
 
@@ -70,106 +154,92 @@ public class CliParser {
      * Command and subcommand names must be alphanumeric.
      * Flag names begin with a double hyphen --.
      * Arguments must be enclosed within double quotes "".
+     * The parser is compiled on first use and recompiled after it is modified.
      */
     public Command parse(String input) {
-        Command command = new Command();
-        String[] tokens = input.split(" +");
-        try {
-            if (tokens.length > 0 && name.equals(tokens[0])) {
-                command.setName(name);
-            } else {
-                throw new ParseException(ERROR_FORMAT, 0);
-            }
-            for (int i = 1; i < tokens.length; i++) {
-                if (tokens[i].startsWith("--") && tokens[i].length() > 2) {
-                    String name = tokens[i].substring(2);
-                    boolean flagFound = false;
-                    for (Flag flag : flags) {
-                        if (name.equals(flag.getName())) {
-                            if (flag.getArg().isPresent()) {
-                                if (i + 1 >= tokens.length) {
-                                    throw new ParseException(ERROR_FORMAT, 0);
-                                }
-                                Object arg = parseArg(tokens[i + 1], flag.getArg().get());
-                                command.addFlag(new Flag(name, arg));
-                                i++;
-                            } else {
-                                command.addFlag(flag);
-                            }
-                            flagFound = true;
-                            break;
-                        }
-                    }
-                    if (!flagFound) {
-                        throw new ParseException(ERROR_FLAG, 0);
-                    }
-                } else if (tokens[i].startsWith("\"") && tokens[i].endsWith("\"")) {
-                    int argIndex = command.getArgs().size();
-                    if (argIndex < args.size()) {
-                        command.addArg(parseArg(tokens[i], args.get(argIndex)));
-                    } else {
-                        throw new ParseException(ERROR_FORMAT, 0);
-                    }
-                } else if (tokens[i].substring(0, 1).matches("[a-zA-Z0-9]")) {
-                    boolean parserFound = false;
-                    for (CliParser parser : subparsers) {
-                        if (parser.name.equals(tokens[i])) {
-                            ArrayList<String> newTokens = new ArrayList<>();
-                            while (i < tokens.length) {
-                                newTokens.add(tokens[i]);
-                                i++;
-                            }
-                            String newInput = String.join(" ", newTokens);
-                            command.setSubcommand(parser.parse(newInput));
-                            parserFound = true;
-                            break;
-                        }
-                    }
-                    if (!parserFound) {
-                        throw new ParseException(ERROR_FORMAT, 0);
-                    }
-                } else {
-                    throw new ParseException(ERROR_FORMAT, 0);
-                }
-            }
-            if ((subcommandRequired && command.getSubcommand().isEmpty()) || args.size() != command.getArgs().size()) {
-                throw new ParseException(ERROR_FORMAT, 0);
-            }
-        } catch (ParseException e) {
-            System.out.println(e.getMessage());
-            return null;
+        if (compiled == null) {
+            compiled = compile();
+        }
+        return compiled.parse(input);
+    }
+
+    /**
+     * Parses the input reusing the buffers and Command of context, as
+     * {@link CompiledParser#parse(CharSequence, ParseContext)} does.
+     */
+    public Command parse(CharSequence input, ParseContext context) {
+        if (compiled == null) {
+            compiled = compile();
         }
-        return command;
+        return compiled.parse(input, context);
+    }
+
+    /**
+     * Parses the input string into a ParseResult describing either the Command
+     * or the error, without printing anything.
+     */
+    public ParseResult parseResult(String input) {
+        if (compiled == null) {
+            compiled = compile();
+        }
+        return compiled.parseResult(input);
+    }
+
+    /**
+     * Freezes the current configuration of this parser and its subparsers into an
+     * immutable, thread-safe CompiledParser. Later changes to this builder do not
+     * affect parsers that were already compiled.
+     */
+    public CompiledParser compile() {
+        return compile(metrics);
     }
 
     /*
-     * Parses token into an object with the same type as arg and returns it.
+     * Compiles as compile() does, recording parses as a root command in
+     * metrics, which may be null, instead of this builder's metrics.
      */
-    private Object parseArg(String token, Object arg) throws ParseException {
-        String name = token.substring(1, token.length() - 1);
-        if (arg instanceof Integer) {
-            try {
-                return Integer.valueOf(name);
-            } catch (NumberFormatException e) {
-                throw new ParseException(ERROR_ARG, 0);
-            }
-        } else if (arg instanceof Double) {
-            try {
-                return Double.valueOf(name);
-            } catch (NumberFormatException e) {
-                throw new ParseException(ERROR_ARG, 0);
+    CompiledParser compile(ParserMetrics metrics) {
+        ConverterRegistry registry = converters != null ? converters : ConverterRegistry.DEFAULTS;
+        Map<String, Converter<?>> compiledFlags = new HashMap<>();
+        Set<String> lazyFlags = new HashSet<>();
+        for (Flag flag : flags) {
+            compiledFlags.put(flag.getName(), flag.getArg().map(registry::resolve).orElse(null));
+            if (lazy && !eagerFlags.contains(flag.getName())) {
+                lazyFlags.add(flag.getName());
             }
-        } else if (arg instanceof String) {
-            return name;
-        } else if (arg instanceof LocalDate) {
-            try {
-                return LocalDate.parse(name);
-            } catch (DateTimeParseException e) {
-                throw new ParseException(ERROR_ARG, 0);
-            }
-        } else {
-            throw new ParseException(ERROR_ARG, 0);
         }
+        Converter<?>[] compiledArgs = new Converter<?>[args.size()];
+        boolean[] lazyArgs = new boolean[args.size()];
+        for (int i = 0; i < compiledArgs.length; i++) {
+            compiledArgs[i] = registry.resolve(args.get(i));
+            lazyArgs[i] = lazy && !eagerArgs.contains(i);
+        }
+        Map<String, CompiledParser> compiledSubparsers = new HashMap<>();
+        for (CliParser subparser : subparsers) {
+            compiledSubparsers.put(subparser.name, subparser.compile());
+        }
+        return new CompiledParser(name, subcommandRequired, compiledFlags, compiledArgs, lazyFlags, lazyArgs,
+                compiledSubparsers, lazySubparsers, metrics);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Set<Flag> getFlags() {
+        return flags;
+    }
+
+    List<Object> getArgs() {
+        return args;
+    }
+
+    Set<CliParser> getSubparsers() {
+        return subparsers;
+    }
+
+    Collection<LazySubparser> getLazySubparsers() {
+        return lazySubparsers.values();
     }
 
 }
@@ -1,49 +1,266 @@
 package oop.project.cli;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
 
+/**
+ * The result of parsing a command. Values are stored in primitive slot arrays
+ * laid out by the CompiledParser, so the typed accessors such as
+ * {@link #getInt(int)} and {@link #getDouble(String)} read them without
+ * allocating, boxing or casting. A parsed Command cannot be modified by its
+ * callers, so it can be cached and shared between threads.
+ * <p>
+ * Commands from a lazy parser keep the raw text of each value and convert it
+ * the first time it is read, memoizing the result. Reading a lazy value whose
+ * text is invalid throws IllegalArgumentException. Lazy values refer to the
+ * parsed input, which must not change while they are unread.
+ * <p>
+ * A Command returned by a parse with a {@link ParseContext} belongs to the
+ * context and is refilled by its next parse.
+ */
 public class Command {
 
-    private String name;
-    private final Map<String, Flag> flags;
-    private final List<Object> args;
+    private static final long[] NO_LONGS = new long[0];
+    private static final double[] NO_DOUBLES = new double[0];
+    private static final Object[] NO_OBJECTS = new Object[0];
+
+    private static final byte PENDING = 0;
+    private static final byte CONVERTED = 1;
+    private static final byte INVALID = 2;
+
+    /*
+     * Publishes lazy conversions so that a thread seeing a value as converted
+     * also sees the value itself.
+     */
+    private static final VarHandle STATES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final CompiledParser layout;
+    final long[] longs;
+    final double[] doubles;
+    final Object[] objects;
+    final boolean[] present;
+    int argCount;
     private Command subcommand;
+    private final CharSequence[] sources;
+    private final int[] starts;
+    private final int[] ends;
+    private final byte[] states;
 
-    Command() {
-        flags = new HashMap<>();
-        args = new ArrayList<>();
+    Command(CompiledParser layout) {
+        this.layout = layout;
+        longs = layout.longCount() == 0 ? NO_LONGS : new long[layout.longCount()];
+        doubles = layout.doubleCount() == 0 ? NO_DOUBLES : new double[layout.doubleCount()];
+        objects = layout.objectCount() == 0 ? NO_OBJECTS : new Object[layout.objectCount()];
+        present = new boolean[layout.flagSlots().length];
+        int lazyCount = layout.lazyCount();
+        sources = lazyCount == 0 ? null : new CharSequence[lazyCount];
+        starts = lazyCount == 0 ? null : new int[lazyCount];
+        ends = lazyCount == 0 ? null : new int[lazyCount];
+        states = lazyCount == 0 ? null : new byte[lazyCount];
     }
 
-    void setName(String name) {
-        this.name = name;
+    /*
+     * Records the raw text of a lazy value, replacing any earlier occurrence.
+     */
+    void defer(Slot slot, CharSequence input, int start, int end) {
+        sources[slot.lazy] = input;
+        starts[slot.lazy] = start;
+        ends[slot.lazy] = end;
+        states[slot.lazy] = PENDING;
     }
 
-    void addFlag(Flag flag) {
-        flags.put(flag.getName(), flag);
+    /*
+     * Returns the raw text range of a lazy value, which CommandTable reads
+     * without converting it.
+     */
+    CharSequence source(Slot slot) {
+        return sources[slot.lazy];
     }
 
-    void addArg(Object arg) {
-        args.add(arg);
+    int start(Slot slot) {
+        return starts[slot.lazy];
+    }
+
+    int end(Slot slot) {
+        return ends[slot.lazy];
+    }
+
+    /*
+     * Converts a lazy value the first time it is read. Concurrent first reads
+     * may both convert, which is harmless since they store the same value.
+     */
+    private void resolve(Slot slot) {
+        int i = slot.lazy;
+        if (i < 0) {
+            return;
+        }
+        byte state = (byte) STATES.getAcquire(states, i);
+        if (state == PENDING) {
+            state = CompiledParser.convert(sources[i], starts[i], ends[i], slot, this) ? CONVERTED : INVALID;
+            STATES.setRelease(states, i, state);
+        }
+        if (state == INVALID) {
+            throw new IllegalArgumentException(ParseError.INVALID_ARGUMENT.getMessage() + ": "
+                    + sources[i].subSequence(starts[i], ends[i]));
+        }
+    }
+
+    /*
+     * Clears the values of a Command owned by a ParseContext before it is
+     * refilled. Object values are dropped so the previous input can be
+     * collected; primitive values are only read when set again.
+     */
+    void reset() {
+        argCount = 0;
+        subcommand = null;
+        Arrays.fill(present, false);
+        Arrays.fill(objects, null);
+        if (sources != null) {
+            Arrays.fill(sources, null);
+        }
     }
 
     void setSubcommand(Command subcommand) {
         this.subcommand = subcommand;
     }
 
+    Command subcommand() {
+        return subcommand;
+    }
+
     public String getName() {
-        return name;
+        return layout.getName();
     }
 
+    /**
+     * Returns the flags that were present, keyed by name. The map is built on
+     * each call; prefer {@link #hasFlag(String)} and the typed accessors.
+     */
     public Map<String, Flag> getFlags() {
-        return flags;
+        Map<String, Flag> flags = new HashMap<>();
+        for (Slot slot : layout.flagSlots()) {
+            if (present[slot.flag]) {
+                resolve(slot);
+                flags.put(slot.name, new Flag(slot.name, slot.box(this)));
+            }
+        }
+        return Collections.unmodifiableMap(flags);
     }
 
+    /**
+     * Returns the positional arguments as objects. The list is built on each
+     * call; prefer the typed accessors.
+     */
     public List<Object> getArgs() {
-        return args;
+        Object[] args = new Object[argCount];
+        for (int i = 0; i < argCount; i++) {
+            resolve(layout.arg(i));
+            args[i] = layout.arg(i).box(this);
+        }
+        return Collections.unmodifiableList(Arrays.asList(args));
     }
 
     public Optional<Command> getSubcommand() {
         return Optional.ofNullable(subcommand);
     }
 
+    /**
+     * Returns the number of positional arguments.
+     */
+    public int getArgCount() {
+        return argCount;
+    }
+
+    /**
+     * Returns true if the flag was present in the input.
+     */
+    public boolean hasFlag(String name) {
+        Slot slot = layout.flag(name);
+        return slot != null && present[slot.flag];
+    }
+
+    public int getInt(int position) {
+        return Math.toIntExact(longs[arg(position, Slot.INTEGER).index]);
+    }
+
+    /**
+     * Returns a long argument, which for dates is the epoch day.
+     */
+    public long getLong(int position) {
+        return longs[arg(position, Slot.LONG).index];
+    }
+
+    public double getDouble(int position) {
+        return doubles[arg(position, Slot.DOUBLE).index];
+    }
+
+    public String getString(int position) {
+        return get(position, String.class);
+    }
+
+    /**
+     * Returns the positional argument as an object of the given type, boxing
+     * it if it is stored in a primitive slot.
+     */
+    public <T> T get(int position, Class<T> type) {
+        return type.cast(arg(position, Slot.NONE).box(this));
+    }
+
+    /**
+     * Returns the argument of a flag, throwing NoSuchElementException if the
+     * flag was not present. Use {@link #hasFlag(String)} to check first.
+     */
+    public int getInt(String flag) {
+        return Math.toIntExact(longs[flag(flag, Slot.INTEGER).index]);
+    }
+
+    public long getLong(String flag) {
+        return longs[flag(flag, Slot.LONG).index];
+    }
+
+    public double getDouble(String flag) {
+        return doubles[flag(flag, Slot.DOUBLE).index];
+    }
+
+    public String getString(String flag) {
+        return get(flag, String.class);
+    }
+
+    public <T> T get(String flag, Class<T> type) {
+        return type.cast(flag(flag, Slot.NONE).box(this));
+    }
+
+    /*
+     * Returns the slot of a positional argument, checking that it can be
+     * read as the given kind.
+     */
+    private Slot arg(int position, byte kind) {
+        if (position < 0 || position >= argCount) {
+            throw new IndexOutOfBoundsException("No argument at position " + position);
+        }
+        Slot slot = layout.arg(position);
+        if (!slot.is(kind)) {
+            throw new IllegalArgumentException("Argument " + position + " is not " + describe(kind));
+        }
+        resolve(slot);
+        return slot;
+    }
+
+    private Slot flag(String name, byte kind) {
+        Slot slot = layout.flag(name);
+        if (slot == null || !present[slot.flag]) {
+            throw new NoSuchElementException("Flag not present: " + name);
+        }
+        if (!slot.is(kind)) {
+            throw new IllegalArgumentException("Flag " + name + " is not " + describe(kind));
+        }
+        resolve(slot);
+        return slot;
+    }
+
+    private static String describe(byte kind) {
+        return kind == Slot.INTEGER ? "an integer" : kind == Slot.LONG ? "a long" : "a decimal";
+    }
+
 }
@@ -0,0 +1,83 @@
+package oop.project.cli;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Parses a log file with one command per line by memory-mapping it and running
+ * the parser directly over the mapped bytes. Lines are found in place and never
+ * copied into Strings, so the heap stays flat however large the file is. Files
+ * larger than a single mapping are processed in windows that start at a line
+ * boundary. With a lazy parser (see {@link CliParser#setLazy(boolean)}), only
+ * the values a handler actually reads are converted or decoded.
+ */
+public final class CommandLog {
+
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    /**
+     * Receives the result of each line, in file order, on the calling thread.
+     * Line numbers start at 1. Results must not be used after the call
+     * returns if they may still refer to the input, such as lazy Commands or
+     * values from custom converters, since the input is a view that is reused
+     * for the next line.
+     */
+    @FunctionalInterface
+    public interface LineHandler {
+
+        void handle(long lineNumber, ParseResult result);
+
+    }
+
+    private CommandLog() {}
+
+    /**
+     * Parses every line of file with parser and passes each result to handler.
+     * A trailing carriage return on a line is ignored. Returns the number of
+     * lines parsed.
+     */
+    public static long parse(Path file, CompiledParser parser, LineHandler handler) throws IOException {
+        return parse(file, parser, handler, WINDOW_SIZE);
+    }
+
+    static long parse(Path file, CompiledParser parser, LineHandler handler, long windowSize) throws IOException {
+        Tokens tokens = new Tokens();
+        ByteCharSequence line = new ByteCharSequence();
+        long lineNumber = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int lineStart = 0;
+                for (int i = 0; i < length; i++) {
+                    if (window.get(i) == '\n') {
+                        handler.handle(++lineNumber, parser.parseResult(parser.input(trim(line, window, lineStart, i)), tokens));
+                        lineStart = i + 1;
+                    }
+                }
+                if (last && lineStart < length) {
+                    handler.handle(++lineNumber, parser.parseResult(parser.input(trim(line, window, lineStart, length)), tokens));
+                    lineStart = length;
+                } else if (lineStart == 0 && !last) {
+                    throw new IOException("Line " + (lineNumber + 1) + " is longer than the mapping window");
+                }
+                position += lineStart;
+            }
+        }
+        return lineNumber;
+    }
+
+    private static ByteCharSequence trim(ByteCharSequence line, MappedByteBuffer window, int start, int end) {
+        if (end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        return line.reset(window, start, end - start);
+    }
+
+}
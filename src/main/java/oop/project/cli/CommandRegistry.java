@@ -0,0 +1,157 @@
+package oop.project.cli;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A set of root commands compiled once and dispatched by name. The input is
+ * tokenized a single time and its first token is looked up in a precomputed
+ * index to select the parser, so parsing constructs no parser objects. A
+ * registry is immutable and can be shared by any number of threads.
+ */
+public final class CommandRegistry {
+
+    private final Map<String, CompiledParser> parsers;
+    private final NameIndex<CompiledParser> index;
+    private final ParserMetrics metrics;
+    private final boolean asciiNames;
+    private final Suggester names;
+
+    /**
+     * Constructs a registry from the given root parsers, compiling each of them.
+     * Throws IllegalArgumentException if two parsers have the same name.
+     */
+    public CommandRegistry(CliParser... parsers) {
+        this(null, parsers);
+    }
+
+    /**
+     * Constructs a registry whose parsers, and lookups of unknown commands,
+     * all record into metrics. The given builders are not changed.
+     */
+    public CommandRegistry(ParserMetrics metrics, CliParser... parsers) {
+        this.metrics = metrics;
+        Map<String, CompiledParser> compiled = new HashMap<>();
+        for (CliParser parser : parsers) {
+            CompiledParser root = metrics != null ? parser.compile(metrics) : parser.compile();
+            if (compiled.put(root.getName(), root) != null) {
+                throw new IllegalArgumentException("Duplicate command: " + root.getName());
+            }
+        }
+        this.parsers = Collections.unmodifiableMap(compiled);
+        this.index = new NameIndex<>(compiled);
+        this.asciiNames = compiled.values().stream().allMatch(CompiledParser::hasAsciiNames);
+        this.names = new Suggester(compiled.keySet(), "");
+    }
+
+    /**
+     * Returns the compiled parser for the command name, or null if there is none.
+     */
+    public CompiledParser get(String name) {
+        return index.get(name, 0, name.length());
+    }
+
+    /**
+     * Returns the compiled root parsers.
+     */
+    public Collection<CompiledParser> getParsers() {
+        return parsers.values();
+    }
+
+    /**
+     * Parses the input with the parser named by its first token. Fails with
+     * {@link ParseError#UNKNOWN_COMMAND} if no parser has that name.
+     */
+    public ParseResult parseResult(CharSequence input) {
+        return parseResult(input, new Tokens());
+    }
+
+    /*
+     * Parses input using tokens as scratch space, which the result does not
+     * refer to.
+     */
+    ParseResult parseResult(CharSequence input, Tokens tokens) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        ParseResult result;
+        if (!Tokenizer.tokenize(input, 0, input.length(), tokens)) {
+            result = ParseResult.failure(tokens);
+        } else {
+            CompiledParser parser = tokens.count > 0 && tokens.kinds[0] == Tokens.WORD
+                    ? index.get(input, tokens.starts[0], tokens.ends[0]) : null;
+            if (parser != null) {
+                return parser.parseTokens(tokens, start);
+            }
+            result = unknown(tokens);
+        }
+        return metrics != null ? metrics.record(null, start, result) : result;
+    }
+
+    /**
+     * Parses the input with the parser named by its first token, reusing the
+     * buffers and Commands of context as
+     * {@link CompiledParser#parse(CharSequence, ParseContext)} does. Returns
+     * null with the error recorded in context if the parse fails.
+     */
+    public Command parse(CharSequence input, ParseContext context) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        Tokens tokens = context.tokens;
+        if (Tokenizer.tokenize(input, 0, input.length(), tokens)) {
+            CompiledParser parser = tokens.count > 0 && tokens.kinds[0] == Tokens.WORD
+                    ? index.get(input, tokens.starts[0], tokens.ends[0]) : null;
+            if (parser != null) {
+                return parser.parseTokens(context, start);
+            }
+            unknown(tokens);
+        }
+        if (metrics != null) {
+            metrics.record(null, start, tokens.error);
+        }
+        return null;
+    }
+
+    /**
+     * Parses the UTF-8 encoded remaining bytes of a buffer with context,
+     * without changing its position.
+     */
+    public Command parse(ByteBuffer buffer, ParseContext context) {
+        return parse(input(context.bytes(buffer)), context);
+    }
+
+    /**
+     * Parses the UTF-8 encoded input bytes[offset, offset + length) without
+     * decoding it, as {@link CompiledParser#parseResult(byte[], int, int)} does.
+     */
+    public ParseResult parseResult(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return parseResult(input(new ByteCharSequence(ByteBuffer.wrap(bytes), offset, length)));
+    }
+
+    /**
+     * Parses the UTF-8 encoded remaining bytes of a heap or direct buffer
+     * without changing its position.
+     */
+    public ParseResult parseResult(ByteBuffer buffer) {
+        return parseResult(input(new ByteCharSequence(buffer, buffer.position(), buffer.remaining())));
+    }
+
+    /*
+     * Records that the first token names no command, suggesting the closest
+     * names if it is a word.
+     */
+    private ParseResult unknown(Tokens tokens) {
+        tokens.error = ParseError.UNKNOWN_COMMAND;
+        tokens.errorToken = 0;
+        tokens.errorOffset = tokens.count > 0 ? tokens.offset(0) : 0;
+        tokens.suggester = tokens.count > 0 && tokens.kinds[0] == Tokens.WORD ? names : null;
+        return ParseResult.failure(tokens);
+    }
+
+    private CharSequence input(ByteCharSequence bytes) {
+        return asciiNames ? bytes : bytes.toString();
+    }
+
+}
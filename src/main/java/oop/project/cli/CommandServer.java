@@ -0,0 +1,258 @@
+package oop.project.cli;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Serves a CommandRegistry to local clients over TCP or a Unix domain socket.
+ * Each connection sends one command per line and receives one line per
+ * command, in order: the formatted Command, or the error message. Commands
+ * are parsed directly from the bytes of the connection's read buffer, and
+ * responses are buffered and flushed once every complete line received so
+ * far has been answered, so pipelined clients share a single write.
+ * <p>
+ * Each connection is handled on its own virtual thread when the runtime
+ * supports them, and on a cached platform thread otherwise. At most
+ * maxConnections are served at once; further clients wait in the accept
+ * backlog. A client that stops reading blocks its own handler, which then
+ * stops reading its input, so a slow client never buffers without bound.
+ */
+public final class CommandServer implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_LINE_LENGTH = 1 << 20;
+
+    private final CommandRegistry registry;
+    private final Function<Command, Object> formatter;
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final Set<SocketChannel> clients = ConcurrentHashMap.newKeySet();
+    private volatile ServerSocketChannel server;
+    private volatile ExecutorService executor;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a server that parses with registry and writes the result of
+     * formatter, as a String, for each successful parse.
+     */
+    public CommandServer(CommandRegistry registry, Function<Command, Object> formatter, int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections must be positive");
+        }
+        this.registry = registry;
+        this.formatter = formatter;
+        this.permits = new Semaphore(maxConnections);
+    }
+
+    /**
+     * Binds to an InetSocketAddress or a UnixDomainSocketAddress and returns
+     * the bound address, which has the actual port if the given port was 0.
+     */
+    public SocketAddress bind(SocketAddress address) throws IOException {
+        server = address instanceof UnixDomainSocketAddress
+                ? ServerSocketChannel.open(StandardProtocolFamily.UNIX) : ServerSocketChannel.open();
+        server.bind(address, 1024);
+        return server.getLocalAddress();
+    }
+
+    /**
+     * Accepts and serves connections until the server is closed. Must be
+     * called after {@link #bind(SocketAddress)}.
+     */
+    public void serve() throws IOException {
+        executor = newPerTaskExecutor();
+        try {
+            while (true) {
+                if (!acquire()) {
+                    return;
+                }
+                SocketChannel client;
+                try {
+                    client = server.accept();
+                } catch (ClosedChannelException e) {
+                    permits.release();
+                    return;
+                }
+                active.incrementAndGet();
+                clients.add(client);
+                if (closed) {
+                    // Accepted while closing, after close() closed the others.
+                    client.close();
+                }
+                executor.execute(() -> {
+                    try (client) {
+                        handle(client);
+                    } catch (IOException ignored) {
+                        // The client disconnected, or the server closed it.
+                    } finally {
+                        clients.remove(client);
+                        active.decrementAndGet();
+                        permits.release();
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /*
+     * Waits for a connection permit, returning false if the server is closed
+     * or the thread is interrupted while waiting.
+     */
+    private boolean acquire() {
+        try {
+            while (!permits.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                if (!server.isOpen()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Returns the number of connections currently being served.
+     */
+    public int getActiveConnections() {
+        return active.get();
+    }
+
+    /**
+     * Stops accepting connections, closes the open ones, and waits briefly
+     * for their handlers to finish. Does nothing more if the server was
+     * never bound.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        ServerSocketChannel server = this.server;
+        if (server == null) {
+            return;
+        }
+        server.close();
+        for (SocketChannel client : clients) {
+            try {
+                client.close();
+            } catch (IOException ignored) {
+                // Closing anyway; the handler sees the channel as closed.
+            }
+        }
+        ExecutorService executor = this.executor;
+        if (executor != null) {
+            try {
+                executor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /*
+     * Reads lines from the client into a buffer that grows up to
+     * MAX_LINE_LENGTH, answering each complete line. A line longer than that
+     * is answered with an error and the connection is closed.
+     */
+    private void handle(SocketChannel client) throws IOException {
+        ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+        while (client.read(in) >= 0) {
+            byte[] bytes = in.array();
+            int lineStart = 0;
+            for (int i = 0; i < in.position(); i++) {
+                if (bytes[i] == '\n') {
+                    int end = i > lineStart && bytes[i - 1] == '\r' ? i - 1 : i;
+                    out = write(client, out, respond(bytes, lineStart, end - lineStart));
+                    lineStart = i + 1;
+                }
+            }
+            in.flip().position(lineStart);
+            in.compact();
+            if (!in.hasRemaining()) {
+                if (in.capacity() >= MAX_LINE_LENGTH) {
+                    out = write(client, out, ParseError.MALFORMED_TOKEN.getMessage());
+                    break;
+                }
+                in = ByteBuffer.allocate(in.capacity() * 2).put(in.flip());
+            }
+            flush(client, out);
+        }
+        flush(client, out);
+    }
+
+    private String respond(byte[] bytes, int offset, int length) {
+        ParseResult result = registry.parseResult(bytes, offset, length);
+        if (!result.isSuccess()) {
+            return result.getMessage();
+        }
+        try {
+            return String.valueOf(formatter.apply(result.getCommand()));
+        } catch (RuntimeException e) {
+            return "Unexpected exception: " + e.getClass().getName() + ", " + e.getMessage();
+        }
+    }
+
+    /*
+     * Appends a response line to out, flushing first if it does not fit.
+     * Returns the buffer to use next, which is larger if the line did not fit
+     * in an empty buffer.
+     */
+    private static ByteBuffer write(SocketChannel client, ByteBuffer out, String response) throws IOException {
+        byte[] line = (response + "\n").getBytes(StandardCharsets.UTF_8);
+        if (line.length > out.remaining()) {
+            flush(client, out);
+            if (line.length > out.capacity()) {
+                out = ByteBuffer.allocate(line.length);
+            }
+        }
+        return out.put(line);
+    }
+
+    private static void flush(SocketChannel client, ByteBuffer out) throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            client.write(out);
+        }
+        out.clear();
+    }
+
+    /*
+     * Returns an executor that runs each task on a new virtual thread if the
+     * runtime has them, looked up reflectively so that this class still runs
+     * on Java 17, where a cached pool of platform threads is used instead.
+     */
+    static ExecutorService newPerTaskExecutor() {
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invokeExact();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return Executors.newCachedThreadPool();
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,412 @@
+package oop.project.cli;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The commands parsed from many inputs by one parser, stored by column rather
+ * than as one Command per input. Each integer, date or other long value of an
+ * argument or flag is a long column, with dates as epoch days, and each
+ * decimal is a double column. Strings and other object values are dictionary
+ * encoded: each distinct value is stored once, and the column holds its int
+ * code. Which rows have each flag is a bit set. A row therefore takes a few
+ * bytes per value, and a string is only created the first time it is seen.
+ * <p>
+ * There is one row per input, in input order. A row whose input is invalid
+ * records only its error, and reading its values throws
+ * NoSuchElementException. Only the values of the parser's own arguments and
+ * flags are stored; inputs with subcommands are checked, but the values of
+ * their subcommands are not kept. A table cannot be modified, so it can be
+ * shared between threads.
+ */
+public final class CommandTable {
+
+    private static final ParseError[] ERRORS = ParseError.values();
+
+    private final CompiledParser layout;
+    private final int rowCount;
+    private final byte[] errors;
+    private final long[][] longs;
+    private final double[][] doubles;
+    private final int[][] codes;
+    private final List<Object>[] dictionaries;
+    private final BitSet[] present;
+
+    private CommandTable(CompiledParser layout, int rowCount, byte[] errors, long[][] longs, double[][] doubles,
+                         int[][] codes, List<Object>[] dictionaries, BitSet[] present) {
+        this.layout = layout;
+        this.rowCount = rowCount;
+        this.errors = errors;
+        this.longs = longs;
+        this.doubles = doubles;
+        this.codes = codes;
+        this.dictionaries = dictionaries;
+        this.present = present;
+    }
+
+    /*
+     * Parses inputs with a parser that defers its object values, so that
+     * strings are encoded directly from the input. One context is reused for
+     * every input, so parsing allocates only the columns, the values of
+     * objects other than strings, and each distinct string.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static CommandTable parse(CompiledParser layout, List<? extends CharSequence> inputs) {
+        int rows = inputs.size();
+        byte[] errors = null;
+        long[][] longs = new long[layout.longCount()][rows];
+        double[][] doubles = new double[layout.doubleCount()][rows];
+        int[][] codes = new int[layout.objectCount()][rows];
+        Dictionary[] dictionaries = new Dictionary[layout.objectCount()];
+        for (int i = 0; i < dictionaries.length; i++) {
+            dictionaries[i] = new Dictionary();
+        }
+        BitSet[] present = new BitSet[layout.flagSlots().length];
+        for (int i = 0; i < present.length; i++) {
+            present[i] = new BitSet(rows);
+        }
+        Object[] values = new Object[layout.objectCount()];
+        ParseContext context = new ParseContext();
+        for (int row = 0; row < rows; row++) {
+            Command command = layout.parse(inputs.get(row), context);
+            ParseError error = command == null ? context.getError() : convert(layout, command, values);
+            if (error != null) {
+                if (errors == null) {
+                    errors = new byte[rows];
+                }
+                errors[row] = (byte) (error.ordinal() + 1);
+                continue;
+            }
+            for (int i = 0; i < layout.argCount(); i++) {
+                store(layout.arg(i), command, values, row, longs, doubles, codes, dictionaries);
+            }
+            for (Slot slot : layout.flagSlots()) {
+                if (command.present[slot.flag]) {
+                    present[slot.flag].set(row);
+                    store(slot, command, values, row, longs, doubles, codes, dictionaries);
+                }
+            }
+        }
+        List<Object>[] encoded = new List[dictionaries.length];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = Collections.unmodifiableList(dictionaries[i].values);
+        }
+        return new CommandTable(layout, rows, errors, longs, doubles, codes, encoded, present);
+    }
+
+    /*
+     * Converts the deferred object values of command other than strings into
+     * values, before anything is stored, so that a row with an invalid value
+     * leaves no trace in the columns. Returns the error, or null if every
+     * value is valid.
+     */
+    private static ParseError convert(CompiledParser layout, Command command, Object[] values) {
+        for (int i = 0; i < layout.argCount(); i++) {
+            if (!convert(layout.arg(i), command, values)) {
+                return ParseError.INVALID_ARGUMENT;
+            }
+        }
+        for (Slot slot : layout.flagSlots()) {
+            if (command.present[slot.flag] && !convert(slot, command, values)) {
+                return ParseError.INVALID_ARGUMENT;
+            }
+        }
+        return null;
+    }
+
+    private static boolean convert(Slot slot, Command command, Object[] values) {
+        if (slot.kind != Slot.OBJECT || slot.converter == Converters.STRING) {
+            return true;
+        }
+        values[slot.index] = slot.converter.convert(command.source(slot), command.start(slot), command.end(slot));
+        return values[slot.index] != null;
+    }
+
+    private static void store(Slot slot, Command command, Object[] values, int row, long[][] longs,
+                              double[][] doubles, int[][] codes, Dictionary[] dictionaries) {
+        switch (slot.kind) {
+            case Slot.LONG:
+                longs[slot.index][row] = command.longs[slot.index];
+                break;
+            case Slot.DOUBLE:
+                doubles[slot.index][row] = command.doubles[slot.index];
+                break;
+            case Slot.OBJECT:
+                Dictionary dictionary = dictionaries[slot.index];
+                codes[slot.index][row] = slot.converter == Converters.STRING
+                        ? dictionary.encode(command.source(slot), command.start(slot), command.end(slot))
+                        : dictionary.encode(values[slot.index]);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Returns the number of rows, which is the number of inputs.
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns true if the input of the row was valid.
+     */
+    public boolean isSuccess(int row) {
+        return getError(row) == null;
+    }
+
+    /**
+     * Returns the kind of error of the row, or null if its input was valid.
+     */
+    public ParseError getError(int row) {
+        if (row < 0 || row >= rowCount) {
+            throw new IndexOutOfBoundsException("No row " + row);
+        }
+        return errors == null || errors[row] == 0 ? null : ERRORS[errors[row] - 1];
+    }
+
+    /**
+     * Returns true if the flag was present in the input of the row.
+     */
+    public boolean hasFlag(int row, String flag) {
+        Slot slot = layout.flag(flag);
+        return isSuccess(row) && slot != null && present[slot.flag].get(row);
+    }
+
+    public int getInt(int row, int position) {
+        return Math.toIntExact(longs[arg(row, position, Slot.INTEGER).index][row]);
+    }
+
+    /**
+     * Returns a long argument, which for dates is the epoch day.
+     */
+    public long getLong(int row, int position) {
+        return longs[arg(row, position, Slot.LONG).index][row];
+    }
+
+    public double getDouble(int row, int position) {
+        return doubles[arg(row, position, Slot.DOUBLE).index][row];
+    }
+
+    public String getString(int row, int position) {
+        return get(row, position, String.class);
+    }
+
+    /**
+     * Returns the argument as an object of the given type, boxing it if it is
+     * stored in a primitive column.
+     */
+    public <T> T get(int row, int position, Class<T> type) {
+        return type.cast(box(row, arg(row, position, Slot.NONE)));
+    }
+
+    /**
+     * Returns the dictionary code of a string or other object argument, its
+     * index in {@link #getDictionary(int)}. Equal values have equal codes.
+     */
+    public int getCode(int row, int position) {
+        return codes[arg(row, position, Slot.OBJECT).index][row];
+    }
+
+    /**
+     * Returns the distinct values of a string or other object argument, in
+     * order of first appearance, indexed by code.
+     */
+    public List<Object> getDictionary(int position) {
+        if (position < 0 || position >= layout.argCount()) {
+            throw new IndexOutOfBoundsException("No argument at position " + position);
+        }
+        return dictionary(layout.arg(position), "Argument " + position);
+    }
+
+    /**
+     * Returns the argument of a flag in the row, throwing
+     * NoSuchElementException if the flag was not present. Use
+     * {@link #hasFlag(int, String)} to check first.
+     */
+    public int getInt(int row, String flag) {
+        return Math.toIntExact(longs[flag(row, flag, Slot.INTEGER).index][row]);
+    }
+
+    public long getLong(int row, String flag) {
+        return longs[flag(row, flag, Slot.LONG).index][row];
+    }
+
+    public double getDouble(int row, String flag) {
+        return doubles[flag(row, flag, Slot.DOUBLE).index][row];
+    }
+
+    public String getString(int row, String flag) {
+        return get(row, flag, String.class);
+    }
+
+    public <T> T get(int row, String flag, Class<T> type) {
+        return type.cast(box(row, flag(row, flag, Slot.NONE)));
+    }
+
+    public int getCode(int row, String flag) {
+        return codes[flag(row, flag, Slot.OBJECT).index][row];
+    }
+
+    public List<Object> getDictionary(String flag) {
+        Slot slot = layout.flag(flag);
+        if (slot == null) {
+            throw new NoSuchElementException("No flag " + flag);
+        }
+        return dictionary(slot, "Flag " + flag);
+    }
+
+    private Object box(int row, Slot slot) {
+        switch (slot.kind) {
+            case Slot.LONG:
+                return ((LongConverter<?>) slot.converter).box(longs[slot.index][row]);
+            case Slot.DOUBLE:
+                return doubles[slot.index][row];
+            case Slot.OBJECT:
+                return dictionaries[slot.index].get(codes[slot.index][row]);
+            default:
+                return null;
+        }
+    }
+
+    private List<Object> dictionary(Slot slot, String description) {
+        if (slot.kind != Slot.OBJECT) {
+            throw new IllegalArgumentException(description + " is not dictionary encoded");
+        }
+        return dictionaries[slot.index];
+    }
+
+    /*
+     * Returns the slot of a positional argument of a valid row, checking that
+     * it can be read as the given kind.
+     */
+    private Slot arg(int row, int position, byte kind) {
+        checkValid(row);
+        if (position < 0 || position >= layout.argCount()) {
+            throw new IndexOutOfBoundsException("No argument at position " + position);
+        }
+        Slot slot = layout.arg(position);
+        if (!slot.is(kind)) {
+            throw new IllegalArgumentException("Argument " + position + " is not " + describe(kind));
+        }
+        return slot;
+    }
+
+    private Slot flag(int row, String name, byte kind) {
+        checkValid(row);
+        Slot slot = layout.flag(name);
+        if (slot == null || !present[slot.flag].get(row)) {
+            throw new NoSuchElementException("Flag not present in row " + row + ": " + name);
+        }
+        if (!slot.is(kind)) {
+            throw new IllegalArgumentException("Flag " + name + " is not " + describe(kind));
+        }
+        return slot;
+    }
+
+    private void checkValid(int row) {
+        ParseError error = getError(row);
+        if (error != null) {
+            throw new NoSuchElementException("Row " + row + " is invalid: " + error.getMessage());
+        }
+    }
+
+    private static String describe(byte kind) {
+        return kind == Slot.INTEGER ? "an integer" : kind == Slot.LONG ? "a long" : kind == Slot.DOUBLE ? "a decimal" : "dictionary encoded";
+    }
+
+    /*
+     * The distinct values of one column and their codes. Strings are looked
+     * up by their characters in an open-addressing table, so a string that
+     * has been seen before is encoded without creating it again; other
+     * values are looked up by equality.
+     */
+    private static final class Dictionary {
+
+        final List<Object> values = new ArrayList<>();
+        private Map<Object, Integer> objects;
+        private String[] keys = new String[16];
+        private int[] codes = new int[16];
+
+        int encode(CharSequence input, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + input.charAt(i);
+            }
+            int mask = keys.length - 1;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (matches(key, input, start, end)) {
+                    return codes[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            key = input.subSequence(start, end).toString();
+            int code = values.size();
+            keys[slot] = key;
+            codes[slot] = code;
+            values.add(key);
+            if (values.size() * 2 > keys.length) {
+                grow();
+            }
+            return code;
+        }
+
+        int encode(Object value) {
+            if (objects == null) {
+                objects = new HashMap<>();
+            }
+            Integer code = objects.get(value);
+            if (code == null) {
+                code = values.size();
+                objects.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        Object get(int code) {
+            return values.get(code);
+        }
+
+        private void grow() {
+            String[] oldKeys = keys;
+            int[] oldCodes = codes;
+            keys = new String[oldKeys.length * 2];
+            codes = new int[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int hash = oldKeys[i].hashCode();
+                    int slot = (hash ^ (hash >>> 16)) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    codes[slot] = oldCodes[i];
+                }
+            }
+        }
+
+        private static boolean matches(String key, CharSequence input, int start, int end) {
+            if (key.length() != end - start) {
+                return false;
+            }
+            for (int i = 0; i < key.length(); i++) {
+                if (key.charAt(i) != input.charAt(start + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
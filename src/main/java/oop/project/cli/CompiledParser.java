@@ -0,0 +1,456 @@
+package oop.project.cli;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * An immutable parse plan produced by {@link CliParser#compile()}.
+ * Flags and subcommands are looked up through precomputed hash indexes and each
+ * positional argument has its converter resolved up front, so a single instance
+ * is thread-safe and can be shared by any number of threads.
+ */
+public final class CompiledParser {
+
+    /*
+     * Per-thread token buffers for stream parsing. A buffer is taken out while
+     * in use so that a converter which parses recursively gets its own.
+     */
+    private static final ThreadLocal<Tokens> SCRATCH = new ThreadLocal<>();
+
+    private final String name;
+    private final boolean subcommandRequired;
+    private final Slot[] args;
+    private final Slot[] flagSlots;
+    private final NameIndex<Slot> flags;
+    private final NameIndex<CompiledParser> subparsers;
+    private final NameIndex<LazySubparser> lazySubparsers;
+    private final Map<String, CompiledParser> subparserEntries;
+    private final Map<String, LazySubparser> lazySubparserEntries;
+    private final Suggester flagNames;
+    private final Suggester subcommandNames;
+    private final int longCount;
+    private final int doubleCount;
+    private final int objectCount;
+    private final int lazyCount;
+    private final boolean asciiNames;
+    private final ParserMetrics metrics;
+    private final LatencyHistogram latency;
+    private volatile CompiledParser deferringObjects;
+
+    /*
+     * Lays out the storage of the arguments and flags, in that order. Flag
+     * converters are null for flags that take no argument, values named in
+     * lazyFlags and lazyArgs are converted on first access, lazySubparsers are
+     * compiled when first used, and metrics is null if parses are not recorded.
+     */
+    CompiledParser(String name, boolean subcommandRequired, Map<String, Converter<?>> flags,
+                   Converter<?>[] args, Set<String> lazyFlags, boolean[] lazyArgs,
+                   Map<String, CompiledParser> subparsers, Map<String, LazySubparser> lazySubparsers,
+                   ParserMetrics metrics) {
+        this.name = name;
+        this.subcommandRequired = subcommandRequired;
+        int[] counts = new int[4];
+        int lazy = 0;
+        this.args = new Slot[args.length];
+        for (int i = 0; i < args.length; i++) {
+            byte kind = Slot.kindOf(args[i]);
+            this.args[i] = new Slot(null, args[i], kind, counts[kind]++, -1, lazyArgs[i] ? lazy++ : -1);
+        }
+        this.flagSlots = new Slot[flags.size()];
+        Map<String, Slot> flagEntries = new HashMap<>();
+        for (Map.Entry<String, Converter<?>> flag : flags.entrySet()) {
+            byte kind = Slot.kindOf(flag.getValue());
+            int index = flagEntries.size();
+            boolean deferred = kind != Slot.NONE && lazyFlags.contains(flag.getKey());
+            flagSlots[index] = new Slot(flag.getKey(), flag.getValue(), kind, counts[kind]++, index, deferred ? lazy++ : -1);
+            flagEntries.put(flag.getKey(), flagSlots[index]);
+        }
+        this.lazyCount = lazy;
+        this.flags = new NameIndex<>(flagEntries);
+        this.subparsers = new NameIndex<>(subparsers);
+        this.lazySubparsers = new NameIndex<>(lazySubparsers);
+        this.subparserEntries = Map.copyOf(subparsers);
+        this.lazySubparserEntries = Map.copyOf(lazySubparsers);
+        this.flagNames = new Suggester(flags.keySet(), "--");
+        Set<String> subcommands = new HashSet<>(subparsers.keySet());
+        subcommands.addAll(lazySubparsers.keySet());
+        this.subcommandNames = new Suggester(subcommands, "");
+        boolean ascii = isAscii(name);
+        for (String flag : flags.keySet()) {
+            ascii &= isAscii(flag);
+        }
+        for (CompiledParser subparser : subparsers.values()) {
+            ascii &= subparser.asciiNames;
+        }
+        for (String subparser : lazySubparsers.keySet()) {
+            ascii &= isAscii(subparser);
+        }
+        this.asciiNames = ascii;
+        this.longCount = counts[Slot.LONG];
+        this.doubleCount = counts[Slot.DOUBLE];
+        this.objectCount = counts[Slot.OBJECT];
+        this.metrics = metrics;
+        this.latency = metrics != null ? metrics.forCommand(name) : null;
+    }
+
+    /**
+     * Returns the command name matched by this parser.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Constructs a Command object and parses arguments into it from the input string.
+     * Accepts the same format as {@link CliParser#parse(String)}, printing the error
+     * message and returning null if the input is invalid.
+     */
+    public Command parse(String input) {
+        ParseResult result = parseResult(input);
+        if (!result.isSuccess()) {
+            System.out.println(result.getMessage());
+        }
+        return result.getCommand();
+    }
+
+    /**
+     * Parses the input string into a ParseResult. Invalid input is reported
+     * through the result rather than by throwing or printing.
+     */
+    public ParseResult parseResult(CharSequence input) {
+        return parseResult(input, new Tokens());
+    }
+
+    /**
+     * Parses the UTF-8 encoded input bytes[offset, offset + length) without
+     * decoding it to a String. Names are matched and numbers parsed directly
+     * on the bytes, and String values are decoded only when they are read.
+     * Error offsets in the result count bytes rather than chars. The bytes
+     * must not change while the result is in use.
+     */
+    public ParseResult parseResult(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        return parseResult(input(new ByteCharSequence(ByteBuffer.wrap(bytes), offset, length)));
+    }
+
+    /**
+     * Parses the UTF-8 encoded remaining bytes of a heap or direct buffer, as
+     * {@link #parseResult(byte[], int, int)} does. The position of the buffer
+     * is not changed.
+     */
+    public ParseResult parseResult(ByteBuffer buffer) {
+        return parseResult(input(new ByteCharSequence(buffer, buffer.position(), buffer.remaining())));
+    }
+
+    /**
+     * Parses the input reusing the token buffers and Command of context, so
+     * that parsing the same commands again allocates nothing beyond the
+     * object values it converts. Returns the Command, which is valid until
+     * the next parse with context, or null with the error recorded in context.
+     */
+    public Command parse(CharSequence input, ParseContext context) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        if (!Tokenizer.tokenize(input, 0, input.length(), context.tokens)) {
+            return record(null, context, start);
+        }
+        return parseTokens(context, start);
+    }
+
+    /**
+     * Parses the UTF-8 encoded remaining bytes of a buffer with context, as
+     * {@link #parse(CharSequence, ParseContext)} does. The position of the
+     * buffer is not changed, and its bytes must not change while the Command
+     * is in use.
+     */
+    public Command parse(ByteBuffer buffer, ParseContext context) {
+        return parse(input(context.bytes(buffer)), context);
+    }
+
+    /**
+     * Parses every input in parallel on the common fork-join pool, returning the
+     * results in input order. With {@link BulkPolicy#FAIL_FAST} the results stop
+     * at the first invalid input; with {@link BulkPolicy#COLLECT_ALL} there is
+     * one result per input.
+     */
+    public List<ParseResult> parseAll(List<String> inputs, BulkPolicy policy) {
+        String[] lines = inputs.toArray(new String[0]);
+        ParseResult[] results = new ParseResult[lines.length];
+        AtomicInteger firstFailure = policy == BulkPolicy.FAIL_FAST ? new AtomicInteger(lines.length) : null;
+        ForkJoinPool.commonPool().invoke(new BulkParseTask(this, lines, results, 0, lines.length, firstFailure));
+        int size = firstFailure == null ? results.length : Math.min(firstFailure.get() + 1, results.length);
+        return Collections.unmodifiableList(Arrays.asList(results).subList(0, size));
+    }
+
+    /**
+     * Parses every input in parallel, collecting all errors.
+     */
+    public List<ParseResult> parseAll(List<String> inputs) {
+        return parseAll(inputs, BulkPolicy.COLLECT_ALL);
+    }
+
+    /**
+     * Parses every input into one row of a columnar {@link CommandTable}, in
+     * input order, including a row for each invalid input. Use this instead
+     * of parseAll when the values are analyzed in bulk rather than read one
+     * command at a time.
+     */
+    public CommandTable parseTable(List<? extends CharSequence> inputs) {
+        return CommandTable.parse(deferringObjects(), inputs);
+    }
+
+    /**
+     * Returns a stream of the results of parsing each input, in the encounter
+     * order of inputs. The stream runs in parallel on the fork-join pool if
+     * inputs is parallel, and each worker thread reuses its own token buffer.
+     */
+    public Stream<ParseResult> parse(Stream<String> inputs) {
+        return inputs.map(input -> {
+            Tokens tokens = SCRATCH.get();
+            SCRATCH.set(null);
+            if (tokens == null) {
+                tokens = new Tokens();
+            }
+            try {
+                return parseResult(input, tokens);
+            } finally {
+                SCRATCH.set(tokens);
+            }
+        });
+    }
+
+    /*
+     * Returns a copy of this parser that defers every object value and
+     * converts every number eagerly, so that a CommandTable can encode
+     * strings straight from the input and only sees valid numbers. The copy
+     * is made on first use and shares the subparsers of this parser.
+     */
+    CompiledParser deferringObjects() {
+        CompiledParser result = deferringObjects;
+        if (result == null) {
+            Map<String, Converter<?>> flagConverters = new HashMap<>();
+            Set<String> deferredFlags = new HashSet<>();
+            for (Slot slot : flagSlots) {
+                flagConverters.put(slot.name, slot.converter);
+                if (slot.kind == Slot.OBJECT) {
+                    deferredFlags.add(slot.name);
+                }
+            }
+            Converter<?>[] argConverters = new Converter<?>[args.length];
+            boolean[] deferredArgs = new boolean[args.length];
+            for (int i = 0; i < args.length; i++) {
+                argConverters[i] = args[i].converter;
+                deferredArgs[i] = args[i].kind == Slot.OBJECT;
+            }
+            deferringObjects = result = new CompiledParser(name, subcommandRequired, flagConverters, argConverters,
+                    deferredFlags, deferredArgs, subparserEntries, lazySubparserEntries, metrics);
+        }
+        return result;
+    }
+
+    /*
+     * Returns the input to parse for a view over UTF-8 bytes. Names are matched
+     * char by char against each byte, so the bytes are decoded first if any
+     * command or flag name is not ASCII.
+     */
+    CharSequence input(ByteCharSequence bytes) {
+        return asciiNames ? bytes : bytes.toString();
+    }
+
+    boolean hasAsciiNames() {
+        return asciiNames;
+    }
+
+    /*
+     * Parses input using tokens as scratch space. Results do not refer to
+     * tokens, so the same buffer can be reused for the next input.
+     */
+    ParseResult parseResult(CharSequence input, Tokens tokens) {
+        long start = metrics != null ? System.nanoTime() : 0;
+        if (!Tokenizer.tokenize(input, 0, input.length(), tokens)) {
+            ParseResult result = ParseResult.failure(tokens);
+            return metrics != null ? metrics.record(latency, start, result) : result;
+        }
+        return parseTokens(tokens, start);
+    }
+
+    /*
+     * Parses input that has already been tokenized, starting at the first token.
+     * Start is the System.nanoTime() at which tokenizing began, used only when
+     * metrics are recorded.
+     */
+    ParseResult parseTokens(Tokens tokens, long start) {
+        Command command = parse(tokens, 0, null);
+        ParseResult result = command != null ? ParseResult.success(command)
+                : ParseResult.failure(tokens);
+        return metrics != null ? metrics.record(latency, start, result) : result;
+    }
+
+    /*
+     * Parses tokenized input into the Commands of context.
+     */
+    Command parseTokens(ParseContext context, long start) {
+        return record(parse(context.tokens, 0, context), context, start);
+    }
+
+    private Command record(Command command, ParseContext context, long start) {
+        if (metrics != null) {
+            metrics.record(latency, start, command != null ? null : context.tokens.error);
+        }
+        return command;
+    }
+
+    /*
+     * Parses the command whose name is at index first of the token stream,
+     * returning null and recording the error in tokens if it is invalid.
+     * Subcommands continue over the same tokens from their own name, so the
+     * input is tokenized only once however deeply commands are nested.
+     * Commands are taken from context if it is not null.
+     */
+    private Command parse(Tokens tokens, int first, ParseContext context) {
+        if (first >= tokens.count || tokens.kinds[first] != Tokens.WORD || !tokens.matches(first, name)) {
+            return tokens.fail(ParseError.INVALID_FORMAT, first);
+        }
+        Command command = context != null ? context.command(this) : new Command(this);
+        for (int i = first + 1; i < tokens.count; i++) {
+            byte kind = tokens.kinds[i];
+            if (kind == Tokens.FLAG) {
+                Slot flag = flags.get(tokens.input, tokens.starts[i], tokens.ends[i]);
+                if (flag == null) {
+                    return tokens.fail(ParseError.INVALID_FLAG, i, flagNames);
+                }
+                if (flag.kind != Slot.NONE) {
+                    if (i + 1 >= tokens.count || !tokens.isQuoted(i + 1)) {
+                        return tokens.fail(ParseError.INVALID_FORMAT, i + 1);
+                    }
+                    if (!store(tokens, ++i, flag, command)) {
+                        return tokens.fail(ParseError.INVALID_ARGUMENT, i);
+                    }
+                }
+                command.present[flag.flag] = true;
+            } else if (kind != Tokens.WORD) {
+                if (command.argCount >= args.length) {
+                    return tokens.fail(ParseError.INVALID_FORMAT, i);
+                }
+                if (!store(tokens, i, args[command.argCount], command)) {
+                    return tokens.fail(ParseError.INVALID_ARGUMENT, i);
+                }
+                command.argCount++;
+            } else if (isAlphanumeric(tokens.input.charAt(tokens.starts[i]))) {
+                CompiledParser parser = subparsers.get(tokens.input, tokens.starts[i], tokens.ends[i]);
+                if (parser == null) {
+                    LazySubparser lazy = lazySubparsers.get(tokens.input, tokens.starts[i], tokens.ends[i]);
+                    if (lazy == null) {
+                        return tokens.fail(ParseError.INVALID_FORMAT, i, subcommandNames);
+                    }
+                    parser = lazy.compiled();
+                }
+                Command subcommand = parser.parse(tokens, i, context);
+                if (subcommand == null) {
+                    return null;
+                }
+                command.setSubcommand(subcommand);
+                break;
+            } else {
+                return tokens.fail(ParseError.INVALID_FORMAT, i);
+            }
+        }
+        if ((subcommandRequired && command.subcommand() == null) || args.length != command.argCount) {
+            return tokens.fail(ParseError.INVALID_FORMAT, tokens.count);
+        }
+        return command;
+    }
+
+    /*
+     * Converts the quoted token into the storage of slot, or records its text
+     * if the slot is lazy. Tokens with escapes are resolved first, otherwise
+     * the value is read directly from the input. Returns false if the value
+     * is invalid.
+     */
+    private static boolean store(Tokens tokens, int token, Slot slot, Command command) {
+        CharSequence input = tokens.input;
+        int start = tokens.starts[token];
+        int end = tokens.ends[token];
+        if (tokens.kinds[token] == Tokens.QUOTED_ESCAPED) {
+            input = tokens.value(token);
+            start = 0;
+            end = input.length();
+        }
+        if (slot.lazy >= 0) {
+            command.defer(slot, input, start, end);
+            return true;
+        }
+        return convert(input, start, end, slot, command);
+    }
+
+    /*
+     * Converts input[start, end) into the storage of slot in command.
+     */
+    static boolean convert(CharSequence input, int start, int end, Slot slot, Command command) {
+        switch (slot.kind) {
+            case Slot.LONG:
+                return ((LongConverter<?>) slot.converter).convertLong(input, start, end, command.longs, slot.index);
+            case Slot.DOUBLE:
+                return ((DoubleConverter) slot.converter).convertDouble(input, start, end, command.doubles, slot.index);
+            default:
+                Object value = slot.converter.convert(input, start, end);
+                command.objects[slot.index] = value;
+                return value != null;
+        }
+    }
+
+    Slot arg(int position) {
+        return args[position];
+    }
+
+    Slot flag(String name) {
+        return flags.get(name, 0, name.length());
+    }
+
+    int argCount() {
+        return args.length;
+    }
+
+    Slot[] flagSlots() {
+        return flagSlots;
+    }
+
+    int longCount() {
+        return longCount;
+    }
+
+    int doubleCount() {
+        return doubleCount;
+    }
+
+    int objectCount() {
+        return objectCount;
+    }
+
+    int lazyCount() {
+        return lazyCount;
+    }
+
+    private static boolean isAscii(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+}
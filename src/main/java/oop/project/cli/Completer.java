@@ -0,0 +1,245 @@
+package oop.project.cli;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Completes partial input lines against a tree of commands. The names of the
+ * root commands, and the subcommands and flags of every command, are indexed
+ * in prefix tries when the Completer is constructed, so completing costs time
+ * proportional to the input and the number of candidates rather than the size
+ * of the tree. Subcommands added with a supplier are indexed when they are
+ * first completed into. A Completer can be shared between threads; later
+ * changes to the parsers it was built from are not reflected.
+ */
+public final class Completer {
+
+    /*
+     * The values accepted by a flag or positional argument: the constants of
+     * an enum, or otherwise a hint naming their type.
+     */
+    private static final class Value {
+        final String hint;
+        final PrefixTrie<Boolean> constants;
+
+        Value(String hint, PrefixTrie<Boolean> constants) {
+            this.hint = hint;
+            this.constants = constants;
+        }
+    }
+
+    /*
+     * A command, whose subcommands are Nodes or, for subcommands registered
+     * with a supplier, LazySubparsers that are loaded when first completed.
+     */
+    private static final class Node {
+        final PrefixTrie<Object> subcommands;
+        final PrefixTrie<Value> flags;
+        final Value[] args;
+
+        Node(PrefixTrie<Object> subcommands, PrefixTrie<Value> flags, Value[] args) {
+            this.subcommands = subcommands;
+            this.flags = flags;
+            this.args = args;
+        }
+    }
+
+    /*
+     * Marks flags that take no argument.
+     */
+    private static final Value NO_VALUE = new Value(null, null);
+
+    private final PrefixTrie<Node> roots;
+    private final Map<LazySubparser, Node> loaded = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a Completer for the given root commands and all of their
+     * subcommands.
+     */
+    public Completer(CliParser... roots) {
+        Map<String, Node> nodes = new HashMap<>();
+        for (CliParser root : roots) {
+            nodes.put(root.getName(), node(root));
+        }
+        this.roots = new PrefixTrie<>(nodes);
+    }
+
+    private static Node node(CliParser parser) {
+        Map<String, Object> subcommands = new HashMap<>();
+        for (LazySubparser subparser : parser.getLazySubparsers()) {
+            subcommands.put(subparser.getName(), subparser);
+        }
+        for (CliParser subparser : parser.getSubparsers()) {
+            subcommands.put(subparser.getName(), node(subparser));
+        }
+        Map<String, Value> flags = new HashMap<>();
+        for (Flag flag : parser.getFlags()) {
+            flags.put(flag.getName(), flag.getArg().map(Completer::value).orElse(NO_VALUE));
+        }
+        List<Object> args = parser.getArgs();
+        Value[] values = new Value[args.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = value(args.get(i));
+        }
+        return new Node(new PrefixTrie<>(subcommands), new PrefixTrie<>(flags), values);
+    }
+
+    /*
+     * Describes an argument given to addArg or addFlag, which may be a
+     * Converter, a Class, or a sample object.
+     */
+    private static Value value(Object arg) {
+        if (arg instanceof Converter) {
+            return new Value("value", null);
+        }
+        Class<?> type = arg instanceof Class ? (Class<?>) arg
+                : arg instanceof Enum ? ((Enum<?>) arg).getDeclaringClass() : arg.getClass();
+        if (type.isEnum()) {
+            Map<String, Boolean> constants = new HashMap<>();
+            for (Object constant : type.getEnumConstants()) {
+                constants.put(((Enum<?>) constant).name(), Boolean.TRUE);
+            }
+            return new Value(null, new PrefixTrie<>(constants));
+        }
+        return new Value(type.getSimpleName(), null);
+    }
+
+    /**
+     * Returns the completions for the token at cursor in input, which may be
+     * partway through a name, a flag or a quoted value, including one whose
+     * closing quote has not been typed yet. Text after the cursor is ignored.
+     * Returns no candidates if the input before the token is invalid.
+     */
+    public Completion complete(CharSequence input, int cursor) {
+        if (cursor < 0 || cursor > input.length()) {
+            throw new IndexOutOfBoundsException(cursor);
+        }
+        Node node = null;
+        Value pending = null;
+        int argCount = 0;
+        int i = 0;
+        int start;
+        while (true) {
+            while (i < cursor && input.charAt(i) == ' ') {
+                i++;
+            }
+            start = i;
+            if (i >= cursor) {
+                break;
+            }
+            if (input.charAt(i) == '"') {
+                i++;
+                while (i < cursor && input.charAt(i) != '"') {
+                    i += input.charAt(i) == '\\' ? 2 : 1;
+                }
+                if (i >= cursor || ++i >= cursor) {
+                    break;
+                } else if (input.charAt(i) != ' ') {
+                    return none(start);
+                }
+            } else {
+                while (i < cursor && input.charAt(i) != ' ') {
+                    i++;
+                }
+                if (i >= cursor) {
+                    break;
+                }
+            }
+            boolean quoted = input.charAt(start) == '"';
+            boolean flag = !quoted && i - start > 2 && input.charAt(start) == '-' && input.charAt(start + 1) == '-';
+            if (node == null) {
+                node = quoted || flag ? null : roots.get(input, start, i);
+                if (node == null) {
+                    return none(start);
+                }
+            } else if (pending != null) {
+                if (!quoted) {
+                    return none(start);
+                }
+                pending = null;
+            } else if (flag) {
+                Value value = node.flags.get(input, start + 2, i);
+                if (value == null) {
+                    return none(start);
+                }
+                pending = value == NO_VALUE ? null : value;
+            } else if (quoted) {
+                argCount++;
+            } else {
+                Object subcommand = node.subcommands.get(input, start, i);
+                if (subcommand == null) {
+                    return none(start);
+                }
+                node = subcommand instanceof Node ? (Node) subcommand
+                        : loaded.computeIfAbsent((LazySubparser) subcommand, lazy -> node(lazy.parser()));
+                argCount = 0;
+            }
+        }
+        return complete(input, start, cursor, node, pending, argCount);
+    }
+
+    /*
+     * Completes the token input[start, end), which is empty if start == end,
+     * given the command and state reached by the tokens before it.
+     */
+    private Completion complete(CharSequence input, int start, int end, Node node, Value pending, int argCount) {
+        List<String> candidates = new ArrayList<>();
+        boolean quoted = start < end && input.charAt(start) == '"';
+        if (node == null) {
+            if (!quoted) {
+                roots.complete(input, start, end, "", "", candidates);
+            }
+            return new Completion(start, Collections.unmodifiableList(candidates), null);
+        }
+        Value value = pending != null ? pending : argCount < node.args.length ? node.args[argCount] : null;
+        String hint = null;
+        if (value != null && (start == end || quoted)) {
+            String prefix = quoted ? unquote(input, start + 1, end) : "";
+            if (value.constants != null) {
+                value.constants.complete(prefix, 0, prefix.length(), "\"", "\"", candidates);
+            } else {
+                hint = value.hint;
+            }
+        }
+        if (pending == null && !quoted) {
+            if (start == end || input.charAt(start) == '-') {
+                int from = start;
+                while (from < end && from < start + 2 && input.charAt(from) == '-') {
+                    from++;
+                }
+                node.flags.complete(input, from, end, "--", "", candidates);
+            }
+            if (start == end || input.charAt(start) != '-') {
+                node.subcommands.complete(input, start, end, "", "", candidates);
+            }
+        }
+        return new Completion(start, Collections.unmodifiableList(candidates), hint);
+    }
+
+    private static Completion none(int start) {
+        return new Completion(start, List.of(), null);
+    }
+
+    /*
+     * Returns the text of a quoted token typed so far, resolving escapes and
+     * dropping the closing quote if there is one.
+     */
+    private static String unquote(CharSequence input, int start, int end) {
+        StringBuilder text = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c == '"') {
+                break;
+            } else if (c == '\\' && i + 1 < end) {
+                c = input.charAt(++i);
+            }
+            text.append(c);
+        }
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,48 @@
+package oop.project.cli;
+
+import java.util.List;
+
+/**
+ * The result of completing a partial input line. Each candidate is the full
+ * text of a token that can replace the input from {@link #getStart()} to the
+ * cursor, such as a subcommand name, a flag with its leading --, or a quoted
+ * value. When the expected value cannot be listed, the hint names its type.
+ */
+public final class Completion {
+
+    private final int start;
+    private final List<String> candidates;
+    private final String hint;
+
+    Completion(int start, List<String> candidates, String hint) {
+        this.start = start;
+        this.candidates = candidates;
+        this.hint = hint;
+    }
+
+    /**
+     * Returns the offset in the input of the start of the token being
+     * completed, which equals the cursor if a new token is being started.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    public List<String> getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * Returns the type of the value expected at the cursor, such as
+     * "Integer", or null if no value is expected or its values are listed.
+     */
+    public String getHint() {
+        return hint;
+    }
+
+    @Override
+    public String toString() {
+        return "Completion[start " + start + ", " + candidates + (hint != null ? ", hint " + hint : "") + "]";
+    }
+
+}
@@ -0,0 +1,14 @@
+package oop.project.cli;
+
+/**
+ * Converts the characters input[start, end) of an argument into a value,
+ * returning null if the text is not valid for the type. Converters should not
+ * throw for invalid input, and are resolved once per argument position when a
+ * parser is compiled.
+ */
+@FunctionalInterface
+public interface Converter<T> {
+
+    T convert(CharSequence input, int start, int end);
+
+}
@@ -0,0 +1,96 @@
+package oop.project.cli;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps argument types to the converters used for them. A registry starts out
+ * with the built-in converters, and custom types can be added with
+ * {@link #register(Class, Converter)}. Enum types are supported without
+ * registration. Lookups happen once per argument when a parser is compiled.
+ */
+public final class ConverterRegistry {
+
+    /*
+     * The built-in converters, shared by parsers that do not register their own.
+     */
+    static final ConverterRegistry DEFAULTS = new ConverterRegistry();
+
+    private final Map<Class<?>, Converter<?>> converters;
+
+    /**
+     * Constructs a registry containing the built-in converters.
+     */
+    public ConverterRegistry() {
+        converters = new ConcurrentHashMap<>();
+        register(Integer.class, Converters.INT);
+        register(int.class, Converters.INT);
+        register(Long.class, Converters.LONG);
+        register(long.class, Converters.LONG);
+        register(Double.class, Converters.DOUBLE);
+        register(double.class, Converters.DOUBLE);
+        register(String.class, Converters.STRING);
+        register(LocalDate.class, TemporalConverters.LOCAL_DATE);
+        register(LocalDateTime.class, TemporalConverters.LOCAL_DATE_TIME);
+        register(Instant.class, TemporalConverters.INSTANT);
+        register(Duration.class, TemporalConverters.DURATION);
+    }
+
+    /**
+     * Constructs a registry containing the same converters as other.
+     */
+    public ConverterRegistry(ConverterRegistry other) {
+        converters = new ConcurrentHashMap<>(other.converters);
+    }
+
+    /**
+     * Registers the converter used for arguments of the given type, replacing
+     * any existing one.
+     */
+    public <T> ConverterRegistry register(Class<T> type, Converter<? extends T> converter) {
+        converters.put(type, converter);
+        return this;
+    }
+
+    /**
+     * Returns the converter for the given type, or null if there is none.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> Converter<T> get(Class<T> type) {
+        Converter<?> converter = converters.get(type);
+        if (converter == null && type.isEnum()) {
+            converter = converters.computeIfAbsent(type, key -> Converters.forEnum((Class) key));
+        }
+        return (Converter<T>) converter;
+    }
+
+    /*
+     * Resolves the argument description passed to CliParser.addArg and addFlag,
+     * which may be a Converter, a Class, or a sample object of the desired type.
+     */
+    Converter<?> resolve(Object arg) {
+        if (arg == null) {
+            throw new IllegalArgumentException("Argument type must not be null");
+        } else if (arg instanceof Converter) {
+            return (Converter<?>) arg;
+        }
+        Class<?> type;
+        if (arg instanceof Class) {
+            type = (Class<?>) arg;
+        } else if (arg instanceof Enum) {
+            type = ((Enum<?>) arg).getDeclaringClass();
+        } else {
+            type = arg.getClass();
+        }
+        Converter<?> converter = get(type);
+        if (converter == null) {
+            throw new IllegalArgumentException("No converter registered for " + type.getName());
+        }
+        return converter;
+    }
+
+}
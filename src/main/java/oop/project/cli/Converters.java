@@ -0,0 +1,181 @@
+package oop.project.cli;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The built-in converters. Numbers are parsed directly from the characters of
+ * the input without substrings, boxing or exceptions.
+ */
+public final class Converters {
+
+    public static final LongConverter<Integer> INT = new LongConverter<>() {
+        @Override
+        public boolean convertLong(CharSequence input, int start, int end, long[] out, int index) {
+            return parseLong(input, start, end, Integer.MIN_VALUE, Integer.MAX_VALUE, out, index);
+        }
+
+        @Override
+        public Integer box(long value) {
+            return (int) value;
+        }
+
+        @Override
+        public boolean isInteger() {
+            return true;
+        }
+    };
+
+    public static final LongConverter<Long> LONG = new LongConverter<>() {
+        @Override
+        public boolean convertLong(CharSequence input, int start, int end, long[] out, int index) {
+            return parseLong(input, start, end, Long.MIN_VALUE, Long.MAX_VALUE, out, index);
+        }
+
+        @Override
+        public Long box(long value) {
+            return value;
+        }
+
+        @Override
+        public boolean isInteger() {
+            return true;
+        }
+    };
+
+    public static final DoubleConverter DOUBLE = Converters::parseDouble;
+
+    public static final Converter<String> STRING = (input, start, end) -> input.subSequence(start, end).toString();
+
+    public static final LongConverter<LocalDate> LOCAL_DATE = TemporalConverters.LOCAL_DATE;
+
+    /*
+     * Powers of ten that are exactly representable as doubles.
+     */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private Converters() {}
+
+    /**
+     * Returns a converter for the constants of an enum, matched by exact name.
+     */
+    public static <E extends Enum<E>> Converter<E> forEnum(Class<E> type) {
+        Map<String, E> constants = new HashMap<>();
+        for (E constant : type.getEnumConstants()) {
+            constants.put(constant.name(), constant);
+        }
+        NameIndex<E> index = new NameIndex<>(constants);
+        return index::get;
+    }
+
+    /*
+     * Parses an optionally signed decimal integer within [min, max], accumulating
+     * negatively so that Long.MIN_VALUE can be represented.
+     */
+    static boolean parseLong(CharSequence input, int start, int end, long min, long max, long[] out, int index) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            negative = input.charAt(i) == '-';
+            i++;
+        }
+        if (i >= end) {
+            return false;
+        }
+        long limit = negative ? min : -max;
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value < (limit + digit) / 10) {
+                return false;
+            }
+            value = value * 10 - digit;
+        }
+        out[index] = negative ? value : -value;
+        return true;
+    }
+
+    /*
+     * Parses [+-]digits[.digits][(e|E)[+-]digits]. Values with at most 15
+     * significant digits and a small exponent are computed exactly from the
+     * digits; anything else is validated here and handed to Double.parseDouble,
+     * which cannot fail on text that passed validation.
+     */
+    static boolean parseDouble(CharSequence input, int start, int end, double[] out, int index) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            negative = input.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        int digits = 0;
+        for (; i < end && isDigit(input.charAt(i)); i++, digits++) {
+            if (mantissa != 0 || input.charAt(i) != '0') {
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + input.charAt(i) - '0';
+                } else {
+                    scale++;
+                }
+                significant++;
+            }
+        }
+        if (i < end && input.charAt(i) == '.') {
+            for (i++; i < end && isDigit(input.charAt(i)); i++, digits++) {
+                if (mantissa != 0 || input.charAt(i) != '0') {
+                    if (significant < 18) {
+                        mantissa = mantissa * 10 + input.charAt(i) - '0';
+                        scale--;
+                    }
+                    significant++;
+                } else {
+                    scale--;
+                }
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        int exponent = 0;
+        if (i < end && (input.charAt(i) == 'e' || input.charAt(i) == 'E')) {
+            boolean negativeExponent = false;
+            if (++i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+                negativeExponent = input.charAt(i++) == '-';
+            }
+            if (i >= end) {
+                return false;
+            }
+            for (; i < end && isDigit(input.charAt(i)); i++) {
+                exponent = Math.min(exponent * 10 + input.charAt(i) - '0', 100000);
+            }
+            if (negativeExponent) {
+                exponent = -exponent;
+            }
+        }
+        if (i != end) {
+            return false;
+        }
+        int power = scale + exponent;
+        double value;
+        if (mantissa == 0) {
+            value = 0;
+        } else if (significant <= 15 && power >= -22 && power <= 22) {
+            value = power < 0 ? mantissa / POWERS_OF_TEN[-power] : mantissa * POWERS_OF_TEN[power];
+        } else {
+            value = Math.abs(Double.parseDouble(input.subSequence(start, end).toString()));
+        }
+        out[index] = negative ? -value : value;
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+}
@@ -0,0 +1,59 @@
+package oop.project.cli;
+
+/*
+ * Finds the next delimiter for the Tokenizer: the quote or backslash that
+ * ends a run of quoted text, or the space that ends a word. This class scans
+ * one char at a time. When the jdk.incubator.vector module is available,
+ * INSTANCE is instead the VectorDelimiterScanner from the vector source set,
+ * which compares many chars at a time and pays off on long quoted values.
+ * It is loaded reflectively, so this class and the tokenizer work unchanged
+ * without the module; setting the system property oop.project.cli.vector to
+ * false also selects this class.
+ */
+class DelimiterScanner {
+
+    static final DelimiterScanner SCALAR = new DelimiterScanner();
+    static final DelimiterScanner INSTANCE = load();
+
+    /*
+     * Returns the index of the first quote or backslash in input[from, to),
+     * or max(from, to) if there is none.
+     */
+    int findQuoteOrBackslash(CharSequence input, int from, int to) {
+        int i = from;
+        while (i < to) {
+            char c = input.charAt(i);
+            if (c == '"' || c == '\\') {
+                return i;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    /*
+     * Returns the index of the first space in input[from, to), or
+     * max(from, to) if there is none.
+     */
+    int findSpace(CharSequence input, int from, int to) {
+        int i = from;
+        while (i < to && input.charAt(i) != ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static DelimiterScanner load() {
+        if (!Boolean.parseBoolean(System.getProperty("oop.project.cli.vector", "true"))) {
+            return SCALAR;
+        }
+        try {
+            return (DelimiterScanner) Class.forName("oop.project.cli.VectorDelimiterScanner")
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not built, or jdk.incubator.vector is not in the module graph.
+            return SCALAR;
+        }
+    }
+
+}
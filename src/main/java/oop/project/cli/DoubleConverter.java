@@ -0,0 +1,21 @@
+package oop.project.cli;
+
+/**
+ * A Converter specialized for decimal values, which are parsed and stored
+ * without boxing.
+ */
+public interface DoubleConverter extends Converter<Double> {
+
+    /**
+     * Converts input[start, end) and stores the value in out[index].
+     * Returns false, leaving out unchanged, if the text is not valid.
+     */
+    boolean convertDouble(CharSequence input, int start, int end, double[] out, int index);
+
+    @Override
+    default Double convert(CharSequence input, int start, int end) {
+        double[] out = new double[1];
+        return convertDouble(input, start, end, out, 0) ? out[0] : null;
+    }
+
+}
@@ -0,0 +1,85 @@
+package oop.project.cli;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * A concurrent histogram of latencies in nanoseconds. Each power of two is
+ * split into four buckets, so reported percentiles are within 25% of the true
+ * value. Buckets are LongAdders, which stripe their counts across threads.
+ */
+final class LatencyHistogram {
+
+    private static final int BUCKETS = 256;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        buckets[index(Math.max(0, nanos))].increment();
+        max.accumulate(nanos);
+    }
+
+    long count() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /*
+     * Returns the upper bound of the bucket containing the given percentile,
+     * between 0 and 100, or 0 if nothing has been recorded.
+     */
+    long percentile(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), max());
+            }
+        }
+        return 0;
+    }
+
+    /*
+     * Values below 4 have their own bucket. Larger values are bucketed by the
+     * position of their highest bit and the two bits below it.
+     */
+    static int index(long value) {
+        if (value < 4) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int top = (int) (value >>> (exponent - 2));
+        return (exponent - 1) * 4 + top - 4;
+    }
+
+    static long upperBound(int index) {
+        if (index < 4) {
+            return index;
+        }
+        int exponent = index / 4 + 1;
+        long top = index % 4 + 4;
+        return ((top + 1) << (exponent - 2)) - 1;
+    }
+
+}
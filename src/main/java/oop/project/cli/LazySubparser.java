@@ -0,0 +1,69 @@
+package oop.project.cli;
+
+import java.util.function.Supplier;
+
+/*
+ * A subparser registered by name with a supplier. The subtree is built and
+ * compiled the first time it is needed, by whichever thread gets there first,
+ * and cached for every later parse. A supplier that throws is tried again on
+ * the next use.
+ */
+final class LazySubparser {
+
+    private final String name;
+    private final Supplier<CliParser> supplier;
+    private volatile CliParser parser;
+    private volatile CompiledParser compiled;
+
+    LazySubparser(String name, Supplier<CliParser> supplier) {
+        this.name = name;
+        this.supplier = supplier;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /*
+     * Returns the built subparser, building it if needed.
+     */
+    CliParser parser() {
+        CliParser result = parser;
+        if (result == null) {
+            load();
+            result = parser;
+        }
+        return result;
+    }
+
+    /*
+     * Returns the compiled subparser, building and compiling it if needed.
+     */
+    CompiledParser compiled() {
+        CompiledParser result = compiled;
+        if (result == null) {
+            load();
+            result = compiled;
+        }
+        return result;
+    }
+
+    boolean isLoaded() {
+        return compiled != null;
+    }
+
+    private synchronized void load() {
+        if (compiled != null) {
+            return;
+        }
+        CliParser built = supplier.get();
+        if (built == null || !name.equals(built.getName())) {
+            throw new IllegalStateException("Supplier for subcommand " + name + " returned "
+                    + (built == null ? "null" : "a parser named " + built.getName()));
+        }
+        CompiledParser result = built.compile();
+        parser = built;
+        compiled = result;
+    }
+
+}
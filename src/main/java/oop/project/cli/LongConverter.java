@@ -0,0 +1,36 @@
+package oop.project.cli;
+
+/**
+ * A Converter for values that can be represented as a long, such as integers
+ * or dates as epoch days, which are parsed and stored without boxing. The
+ * boxed form is only created by {@link #box(long)} when an object is needed.
+ */
+public interface LongConverter<T> extends Converter<T> {
+
+    /**
+     * Converts input[start, end) and stores the value in out[index].
+     * Returns false, leaving out unchanged, if the text is not valid.
+     */
+    boolean convertLong(CharSequence input, int start, int end, long[] out, int index);
+
+    /**
+     * Returns the object form of a value produced by this converter.
+     */
+    T box(long value);
+
+    /**
+     * Returns true if the values are integers, which {@link Command#getInt(int)}
+     * and the other int accessors may read. Other values, such as dates as
+     * epoch days, can only be read as longs or as objects.
+     */
+    default boolean isInteger() {
+        return false;
+    }
+
+    @Override
+    default T convert(CharSequence input, int start, int end) {
+        long[] out = new long[1];
+        return convertLong(input, start, end, out, 0) ? box(out[0]) : null;
+    }
+
+}
@@ -1,13 +1,32 @@
 package oop.project.cli;
 
+import java.io.BufferedOutputStream;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
 import java.util.Scanner;
 
 public class Main {
 
     /**
      * A default implementation of main that can be used to run scenarios.
+     * Run with --batch to process stdin in parallel with buffered output, or
+     * with --serve and a port or Unix socket path to serve clients.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--batch")) {
+            runBatch();
+            return;
+        } else if (args.length > 0 && args[0].equals("--serve")) {
+            runServer(args);
+            return;
+        }
         var scanner = new Scanner(System.in);
         while (true) {
             var input = scanner.nextLine();
@@ -23,4 +42,37 @@ public class Main {
         }
     }
 
+    /*
+     * Replays stdin through the scenarios on all available cores, writing
+     * results to stdout in input order. Invalid lines are written as their
+     * error message in place of a result, through the same buffered stream.
+     */
+    private static void runBatch() throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16);
+        var runner = new BatchRunner(Scenarios::parseOrMessage, Runtime.getRuntime().availableProcessors());
+        try (var in = new FileInputStream(FileDescriptor.in).getChannel()) {
+            runner.run(in, out);
+        }
+    }
+
+    /*
+     * Serves the scenarios on a loopback port, or on a Unix domain socket if
+     * the address is not a number, until the process is stopped. An optional
+     * third argument limits the number of concurrent connections.
+     */
+    private static void runServer(String[] args) throws IOException {
+        if (args.length < 2 || args[1].isEmpty()) {
+            System.err.println("Usage: --serve <port | socket path> [max connections]");
+            return;
+        }
+        SocketAddress address = args[1].chars().allMatch(Character::isDigit)
+                ? new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[1]))
+                : UnixDomainSocketAddress.of(args[1]);
+        int maxConnections = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        try (var server = new CommandServer(Scenarios.registry(), Scenarios::toMap, maxConnections)) {
+            System.err.println("Listening on " + server.bind(address));
+            server.serve();
+        }
+    }
+
 }
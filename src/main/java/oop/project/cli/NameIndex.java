@@ -0,0 +1,73 @@
+package oop.project.cli;
+
+import java.util.Map;
+
+/**
+ * An immutable open-addressing hash table from names to values that is queried
+ * with a range of characters, so a name can be looked up directly inside an
+ * input string without taking a substring first. Lookup cost depends only on
+ * the length of the name, not on the number of entries.
+ */
+final class NameIndex<T> {
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    NameIndex(Map<String, T> entries) {
+        int capacity = Integer.highestOneBit(Math.max(2, entries.size() * 2 - 1)) << 1;
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (Map.Entry<String, T> entry : entries.entrySet()) {
+            int slot = mix(entry.getKey().hashCode()) & mask;
+            while (keys[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = entry.getKey();
+            values[slot] = entry.getValue();
+        }
+    }
+
+    /**
+     * Returns the value stored under the name input[start, end), or null if
+     * there is none.
+     */
+    @SuppressWarnings("unchecked")
+    T get(CharSequence input, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + input.charAt(i);
+        }
+        int slot = mix(hash) & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (matches(key, input, start, end)) {
+                return (T) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /*
+     * Spreads the higher bits of a String-compatible hash into the low bits
+     * used for the slot index.
+     */
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(String key, CharSequence input, int start, int end) {
+        if (key.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != input.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,125 @@
+package oop.project.cli;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A size-bounded cache of parse results keyed by the exact input string, for
+ * traffic dominated by a small set of repeated command lines. The cache is
+ * split into independently locked segments, each evicting its least recently
+ * used entry when full, so threads rarely contend. Cached results and their
+ * Commands are immutable and can be handed to any number of callers.
+ */
+public final class ParseCache {
+
+    private final Function<String, ParseResult> parser;
+    private final Segment[] segments;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs a cache holding at most about maximumSize results, in front of
+     * a parse function such as {@code compiledParser::parseResult} or
+     * {@code registry::parseResult}.
+     */
+    public ParseCache(Function<String, ParseResult> parser, int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        int count = Integer.highestOneBit(Math.max(1, Math.min(maximumSize, 4 * Runtime.getRuntime().availableProcessors())));
+        this.parser = parser;
+        this.segments = new Segment[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment((maximumSize + count - 1) / count);
+        }
+    }
+
+    /**
+     * Returns the cached result for input, parsing and caching it on a miss.
+     */
+    public ParseResult parseResult(String input) {
+        int hash = input.hashCode();
+        Segment segment = segments[(hash ^ (hash >>> 16)) & mask];
+        ParseResult result;
+        synchronized (segment) {
+            result = segment.get(input);
+        }
+        if (result != null) {
+            hits.increment();
+            return result;
+        }
+        misses.increment();
+        result = parser.apply(input);
+        synchronized (segment) {
+            segment.put(input, result);
+        }
+        return result;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Returns the number of cached results.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes every cached result. The statistics are kept.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    /*
+     * An access-ordered map that drops its eldest entry once it grows past
+     * its capacity. Guarded by its own monitor.
+     */
+    @SuppressWarnings("serial")
+    private final class Segment extends LinkedHashMap<String, ParseResult> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ParseResult> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+
+    }
+
+}
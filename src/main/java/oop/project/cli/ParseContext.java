@@ -0,0 +1,107 @@
+package oop.project.cli;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reusable scratch space for parsing without allocating. A context keeps the
+ * token buffers and one Command for each of the parsers it was most recently
+ * used with, and every parse resets and refills them in place. Once each
+ * command in use has been parsed once, parsing numbers, flags and
+ * subcommands, and recording lazily converted values, allocates nothing;
+ * only String and other object values that are converted eagerly still
+ * allocate.
+ * <p>
+ * The Command returned by a parse with a context is overwritten by the next
+ * parse with the same context, so it must be read before then and must not
+ * be cached or shared. A context is not thread-safe. Use one per thread, such
+ * as the one returned by {@link #forCurrentThread()}, and do not parse with
+ * the same context from inside a converter.
+ */
+public final class ParseContext {
+
+    private static final ThreadLocal<ParseContext> POOL = ThreadLocal.withInitial(ParseContext::new);
+    private static final int MAX_COMMANDS = 64;
+
+    final Tokens tokens = new Tokens();
+    private final ByteCharSequence bytes = new ByteCharSequence();
+
+    /*
+     * The commands of the parsers used most recently, in access order. The
+     * least recently used is dropped beyond MAX_COMMANDS, so a pooled context
+     * does not keep parsers that were recompiled and discarded reachable.
+     * CompiledParser keeps identity equality, so lookups match by identity.
+     */
+    private final Map<CompiledParser, Command> commands = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CompiledParser, Command> eldest) {
+            return size() > MAX_COMMANDS;
+        }
+    };
+
+    /**
+     * Returns the context owned by the current thread, creating it on first use.
+     */
+    public static ParseContext forCurrentThread() {
+        return POOL.get();
+    }
+
+    /**
+     * Returns the kind of error of the last parse, or null if it succeeded.
+     */
+    public ParseError getError() {
+        return tokens.error;
+    }
+
+    /**
+     * Returns the index of the token that caused the last parse to fail, or
+     * -1 if it succeeded.
+     */
+    public int getTokenIndex() {
+        return tokens.errorToken;
+    }
+
+    /**
+     * Returns the character offset at which the last parse failed, or -1 if
+     * it succeeded.
+     */
+    public int getOffset() {
+        return tokens.errorOffset;
+    }
+
+    /**
+     * Returns up to three known names closest to the unknown flag or command
+     * that caused the last parse to fail, as
+     * {@link ParseResult#getSuggestions()} does.
+     */
+    public List<String> getSuggestions() {
+        return tokens.error != null ? tokens.suggestions() : List.of();
+    }
+
+    /*
+     * Returns this context's Command for parser, cleared for a new parse.
+     */
+    Command command(CompiledParser parser) {
+        Command command = commands.get(parser);
+        if (command == null) {
+            command = new Command(parser);
+            commands.put(parser, command);
+        }
+        command.reset();
+        return command;
+    }
+
+    int commandCount() {
+        return commands.size();
+    }
+
+    /*
+     * Points the reused byte view at the remaining bytes of buffer.
+     */
+    ByteCharSequence bytes(ByteBuffer buffer) {
+        return bytes.reset(buffer, buffer.position(), buffer.remaining());
+    }
+
+}
@@ -0,0 +1,25 @@
+package oop.project.cli;
+
+/**
+ * The kinds of error a parse can fail with, each carrying the message printed
+ * by {@link CliParser#parse(String)}.
+ */
+public enum ParseError {
+
+    MALFORMED_TOKEN("Error: Invalid command format"),
+    INVALID_FORMAT("Error: Invalid command format"),
+    INVALID_FLAG("Error: Invalid flag"),
+    INVALID_ARGUMENT("Error: Invalid argument"),
+    UNKNOWN_COMMAND("Error: Unknown command");
+
+    private final String message;
+
+    ParseError(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+}
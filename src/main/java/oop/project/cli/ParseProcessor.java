@@ -0,0 +1,261 @@
+package oop.project.cli;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+/**
+ * A reactive stream stage that parses command lines into ParseResults as they
+ * arrive, in arrival order. Invalid lines become failed results rather than
+ * errors, so one bad line never ends the stream; the stream fails only if the
+ * upstream fails or a converter throws.
+ * <p>
+ * Lines are requested from the upstream only as the single downstream
+ * subscriber asks for results, with at most batchSize requested and not yet
+ * parsed at a time, so the processor never buffers more than one batch.
+ * Parsing runs on the given executor, one batch per task, and a task never
+ * runs concurrently with another for the same processor. If the executor
+ * rejects a task, it runs on the calling thread instead.
+ */
+public final class ParseProcessor implements Flow.Processor<String, ParseResult> {
+
+    private final BiFunction<CharSequence, Tokens, ParseResult> parser;
+    private final Executor executor;
+    private final int batchSize;
+    private final Tokens tokens = new Tokens();
+    private final Queue<String> inputs = new ConcurrentLinkedQueue<>();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicReference<Flow.Subscription> upstream = new AtomicReference<>();
+    private final AtomicReference<Flow.Subscriber<? super ParseResult>> downstream = new AtomicReference<>();
+    private volatile boolean subscribed;
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile Throwable error;
+    private volatile IllegalArgumentException invalidRequest;
+
+    // Only accessed by the running drain task.
+    private int inFlight;
+    private boolean terminated;
+    private boolean upstreamCancelled;
+
+    /**
+     * Constructs a processor that parses each line with parser on executor,
+     * requesting at most batchSize lines ahead of parsing.
+     */
+    public ParseProcessor(CompiledParser parser, Executor executor, int batchSize) {
+        this(parser::parseResult, executor, batchSize);
+    }
+
+    /**
+     * Constructs a processor that parses each line with the parser that
+     * registry selects by its first token.
+     */
+    public ParseProcessor(CommandRegistry registry, Executor executor, int batchSize) {
+        this(registry::parseResult, executor, batchSize);
+    }
+
+    private ParseProcessor(BiFunction<CharSequence, Tokens, ParseResult> parser, Executor executor, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.parser = parser;
+        this.executor = Objects.requireNonNull(executor);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Subscribes the only downstream subscriber. Any later subscriber is
+     * failed with IllegalStateException.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super ParseResult> subscriber) {
+        Objects.requireNonNull(subscriber);
+        if (!downstream.compareAndSet(null, subscriber)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {}
+
+                @Override
+                public void cancel() {}
+            });
+            subscriber.onError(new IllegalStateException("ParseProcessor supports a single subscriber"));
+            return;
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    invalidRequest = new IllegalArgumentException("Requested " + n + " results, must be positive");
+                } else {
+                    demand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+                }
+                schedule();
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+                schedule();
+            }
+        });
+        subscribed = true;
+        schedule();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (!upstream.compareAndSet(null, subscription)) {
+            subscription.cancel();
+            return;
+        }
+        schedule();
+    }
+
+    @Override
+    public void onNext(String item) {
+        inputs.offer(Objects.requireNonNull(item));
+        schedule();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = Objects.requireNonNull(throwable);
+        done = true;
+        schedule();
+    }
+
+    @Override
+    public void onComplete() {
+        done = true;
+        schedule();
+    }
+
+    /*
+     * Runs the drain task unless it is already scheduled or running, in which
+     * case that task will see the new state before it finishes.
+     */
+    private void schedule() {
+        if (pending.getAndIncrement() == 0 && !execute()) {
+            drain();
+        }
+    }
+
+    private boolean execute() {
+        try {
+            executor.execute(this::drain);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /*
+     * Parses and delivers at most one batch, then requests more lines from
+     * the upstream, completes the downstream, or schedules itself again for
+     * the next batch. Every signal to the downstream and every call on the
+     * upstream subscription is made from here, so they are made serially.
+     */
+    private void drain() {
+        int missed = 1;
+        while (true) {
+            if (!terminated && subscribed) {
+                Flow.Subscriber<? super ParseResult> subscriber = downstream.get();
+                if (cancelled) {
+                    terminate();
+                } else if (invalidRequest != null) {
+                    terminate();
+                    subscriber.onError(invalidRequest);
+                } else if (deliver(subscriber)) {
+                    if (execute()) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            if (cancelled) {
+                cancelUpstream();
+            }
+            missed = pending.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    /*
+     * Delivers one batch of results, returning true if a full batch was
+     * delivered and more may be ready.
+     */
+    private boolean deliver(Flow.Subscriber<? super ParseResult> subscriber) {
+        long requested = demand.get();
+        int emitted = 0;
+        String input;
+        while (emitted < batchSize && emitted < requested && !cancelled && (input = inputs.poll()) != null) {
+            ParseResult result;
+            try {
+                result = parser.apply(input, tokens);
+            } catch (RuntimeException e) {
+                terminate();
+                subscriber.onError(e);
+                return false;
+            }
+            subscriber.onNext(result);
+            emitted++;
+        }
+        inFlight -= emitted;
+        if (requested != Long.MAX_VALUE) {
+            demand.addAndGet(-emitted);
+        }
+        if (done && inputs.isEmpty()) {
+            terminate();
+            if (error != null) {
+                subscriber.onError(error);
+            } else {
+                subscriber.onComplete();
+            }
+            return false;
+        }
+        Flow.Subscription subscription = upstream.get();
+        if (subscription != null && !done && !cancelled) {
+            long wanted = Math.min(batchSize, demand.get()) - inFlight;
+            if (wanted > 0) {
+                inFlight += (int) wanted;
+                subscription.request(wanted);
+            }
+        }
+        return emitted == batchSize && !terminated;
+    }
+
+    /*
+     * Stops the stream. The drain loop then cancels the upstream, or does so
+     * when it subscribes if it has not yet.
+     */
+    private void terminate() {
+        terminated = true;
+        cancelled = true;
+        inputs.clear();
+    }
+
+    /*
+     * Cancels the upstream once it has subscribed, unless it already ended.
+     */
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream.get();
+        if (subscription != null && !upstreamCancelled) {
+            upstreamCancelled = true;
+            if (!done) {
+                subscription.cancel();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package oop.project.cli;
+
+import java.util.List;
+
+/**
+ * The outcome of a parse: either a successfully parsed Command, or the kind of
+ * error together with the index of the offending token and its character
+ * offset in the input. A failed parse allocates nothing beyond this result,
+ * and a copy of the name if the error is an unknown flag or command, for
+ * which the closest known names are suggested on request.
+ */
+public final class ParseResult {
+
+    private final Command command;
+    private final ParseError error;
+    private final int tokenIndex;
+    private final int offset;
+    private final Suggester suggester;
+    private final String name;
+    private volatile List<String> suggestions;
+
+    private ParseResult(Command command, ParseError error, int tokenIndex, int offset, Suggester suggester, String name) {
+        this.command = command;
+        this.error = error;
+        this.tokenIndex = tokenIndex;
+        this.offset = offset;
+        this.suggester = suggester;
+        this.name = name;
+    }
+
+    static ParseResult success(Command command) {
+        return new ParseResult(command, null, -1, -1, null, null);
+    }
+
+    static ParseResult failure(ParseError error, int tokenIndex, int offset) {
+        return new ParseResult(null, error, tokenIndex, offset, null, null);
+    }
+
+    /*
+     * Returns the failure recorded in tokens, keeping the unknown name if
+     * there is one so that suggestions do not depend on the input buffer.
+     */
+    static ParseResult failure(Tokens tokens) {
+        if (tokens.suggester == null) {
+            return failure(tokens.error, tokens.errorToken, tokens.errorOffset);
+        }
+        String name = tokens.input.subSequence(tokens.starts[tokens.errorToken], tokens.ends[tokens.errorToken]).toString();
+        return new ParseResult(null, tokens.error, tokens.errorToken, tokens.errorOffset, tokens.suggester, name);
+    }
+
+    public boolean isSuccess() {
+        return command != null;
+    }
+
+    /**
+     * Returns the parsed command, or null if the parse failed.
+     */
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the kind of error, or null if the parse succeeded.
+     */
+    public ParseError getError() {
+        return error;
+    }
+
+    /**
+     * Returns the index of the token that caused the error, which is the number
+     * of tokens if the input ended too early, or -1 if the parse succeeded.
+     */
+    public int getTokenIndex() {
+        return tokenIndex;
+    }
+
+    /**
+     * Returns the character offset in the input at which the error was found,
+     * or -1 if the parse succeeded.
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns up to three known flag or command names closest to the unknown
+     * one that caused the error, closest first, or an empty list if there are
+     * none or the error was of another kind. Flags are returned with their
+     * leading --. The names are looked up on the first call.
+     */
+    public List<String> getSuggestions() {
+        List<String> result = suggestions;
+        if (result == null) {
+            result = suggester != null ? suggester.suggest(name, 0, name.length()) : List.of();
+            suggestions = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the error message followed by any suggestions, or null if the
+     * parse succeeded.
+     */
+    public String getMessage() {
+        if (error == null) {
+            return null;
+        }
+        List<String> names = getSuggestions();
+        return names.isEmpty() ? error.getMessage() : error.getMessage() + ". Did you mean " + String.join(", ", names) + "?";
+    }
+
+    @Override
+    public String toString() {
+        if (isSuccess()) {
+            return "ParseResult[success]";
+        }
+        return "ParseResult[" + error + " at token " + tokenIndex + ", offset " + offset + "]";
+    }
+
+}
@@ -0,0 +1,147 @@
+package oop.project.cli;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * Counts parses, successes and failures by kind of error, and keeps a latency
+ * histogram for each root command. Counters are striped LongAdders, so many
+ * threads can record without contending. Attach an instance to parsers with
+ * {@link CliParser#withMetrics(ParserMetrics)}; parsers without metrics skip
+ * recording entirely. The values can be read through the getters or exposed
+ * over JMX with {@link #register(String)}.
+ */
+public final class ParserMetrics implements ParserMetricsMXBean {
+
+    private final LongAdder parses = new LongAdder();
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder[] failures = new LongAdder[ParseError.values().length];
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
+    public ParserMetrics() {
+        for (int i = 0; i < failures.length; i++) {
+            failures[i] = new LongAdder();
+        }
+    }
+
+    /*
+     * Returns the histogram for a root command, created when the parser is
+     * compiled so recording never has to look it up.
+     */
+    LatencyHistogram forCommand(String name) {
+        return latencies.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /*
+     * Records a parse that started at the given System.nanoTime() and returns
+     * its result. The histogram is null if the command name was not known.
+     */
+    ParseResult record(LatencyHistogram histogram, long start, ParseResult result) {
+        record(histogram, start, result.getError());
+        return result;
+    }
+
+    /*
+     * Records a parse that failed with error, or succeeded if error is null.
+     */
+    void record(LatencyHistogram histogram, long start, ParseError error) {
+        if (histogram != null) {
+            histogram.record(System.nanoTime() - start);
+        }
+        parses.increment();
+        if (error == null) {
+            successes.increment();
+        } else {
+            failures[error.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server under
+     * oop.project.cli:type=ParserMetrics,name=name and returns the object name.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("oop.project.cli:type=ParserMetrics,name=" + ObjectName.quote(name));
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public long getParseCount() {
+        return parses.sum();
+    }
+
+    @Override
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    @Override
+    public long getFailureCount() {
+        long count = 0;
+        for (LongAdder failure : failures) {
+            count += failure.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of failed parses with the given kind of error.
+     */
+    public long getFailureCount(ParseError error) {
+        return failures[error.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getFailureCountsByError() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (ParseError error : ParseError.values()) {
+            counts.put(error.name(), failures[error.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    @Override
+    public Map<String, Long> getParseCountsByCommand() {
+        return byCommand(LatencyHistogram::count);
+    }
+
+    @Override
+    public Map<String, Long> getMedianLatencyNanosByCommand() {
+        return byCommand(histogram -> histogram.percentile(50));
+    }
+
+    @Override
+    public Map<String, Long> getP99LatencyNanosByCommand() {
+        return byCommand(histogram -> histogram.percentile(99));
+    }
+
+    @Override
+    public Map<String, Long> getMaxLatencyNanosByCommand() {
+        return byCommand(LatencyHistogram::max);
+    }
+
+    /**
+     * Returns the latency in nanoseconds at the given percentile, between 0 and
+     * 100, of parses of the named root command, or 0 if there were none.
+     */
+    public long getLatencyNanos(String command, double percentile) {
+        LatencyHistogram histogram = latencies.get(command);
+        return histogram == null ? 0 : histogram.percentile(percentile);
+    }
+
+    private Map<String, Long> byCommand(ToLongFunction<LatencyHistogram> statistic) {
+        Map<String, Long> values = new TreeMap<>();
+        latencies.forEach((name, histogram) -> values.put(name, statistic.applyAsLong(histogram)));
+        return values;
+    }
+
+}
@@ -0,0 +1,30 @@
+package oop.project.cli;
+
+import java.util.Map;
+
+/**
+ * The JMX view of {@link ParserMetrics}. Latencies cover tokenizing and
+ * parsing a whole command line and are keyed by root command name.
+ */
+public interface ParserMetricsMXBean {
+
+    long getParseCount();
+
+    long getSuccessCount();
+
+    long getFailureCount();
+
+    /**
+     * Returns the number of failed parses for each kind of {@link ParseError}.
+     */
+    Map<String, Long> getFailureCountsByError();
+
+    Map<String, Long> getParseCountsByCommand();
+
+    Map<String, Long> getMedianLatencyNanosByCommand();
+
+    Map<String, Long> getP99LatencyNanosByCommand();
+
+    Map<String, Long> getMaxLatencyNanosByCommand();
+
+}
@@ -0,0 +1,150 @@
+package oop.project.cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable trie from names to values that finds every name with a given
+ * prefix. Names are kept sorted, so the names below each node form a
+ * contiguous range and completing a prefix costs one step per character plus
+ * one per result, however many names there are. Nodes are stored in flat
+ * arrays with the edges of each node sorted by character.
+ */
+final class PrefixTrie<T> {
+
+    private final String[] names;
+    private final Object[] values;
+    private final int[] from;
+    private final int[] to;
+    private final int[] firstEdge;
+    private final int[] edgeCount;
+    private final char[] edgeChars;
+    private final int[] edgeNodes;
+
+    PrefixTrie(Map<String, T> entries) {
+        names = entries.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        values = new Object[names.length];
+        for (int i = 0; i < names.length; i++) {
+            values[i] = entries.get(names[i]);
+        }
+        List<int[]> nodes = new ArrayList<>();
+        List<int[]> edges = new ArrayList<>();
+        build(0, names.length, 0, nodes, edges);
+        from = new int[nodes.size()];
+        to = new int[nodes.size()];
+        firstEdge = new int[nodes.size()];
+        edgeCount = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            int[] node = nodes.get(i);
+            from[i] = node[0];
+            to[i] = node[1];
+            firstEdge[i] = node[2];
+            edgeCount[i] = node[3];
+        }
+        edgeChars = new char[edges.size()];
+        edgeNodes = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            edgeChars[i] = (char) edges.get(i)[0];
+            edgeNodes[i] = edges.get(i)[1];
+        }
+    }
+
+    /*
+     * Adds the node for names[start, end), which share their first depth
+     * characters, and its descendants, returning its index. The edges of a
+     * node are reserved contiguously before its children are built.
+     */
+    private int build(int start, int end, int depth, List<int[]> nodes, List<int[]> edges) {
+        int index = nodes.size();
+        int[] node = {start, end, 0, 0};
+        nodes.add(node);
+        int i = start;
+        while (i < end && names[i].length() == depth) {
+            i++;
+        }
+        List<int[]> children = new ArrayList<>();
+        while (i < end) {
+            char c = names[i].charAt(depth);
+            int j = i;
+            while (j < end && names[j].charAt(depth) == c) {
+                j++;
+            }
+            children.add(new int[]{c, i, j});
+            i = j;
+        }
+        node[2] = edges.size();
+        node[3] = children.size();
+        for (int[] child : children) {
+            edges.add(new int[]{child[0], -1});
+        }
+        for (int k = 0; k < children.size(); k++) {
+            int[] child = children.get(k);
+            edges.get(node[2] + k)[1] = build(child[1], child[2], depth + 1, nodes, edges);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the value stored under the name input[start, end), or null if
+     * there is none.
+     */
+    @SuppressWarnings("unchecked")
+    T get(CharSequence input, int start, int end) {
+        int node = find(input, start, end);
+        if (node < 0 || from[node] == to[node] || names[from[node]].length() != end - start) {
+            return null;
+        }
+        return (T) values[from[node]];
+    }
+
+    /**
+     * Adds every name starting with input[start, end) to out, in sorted
+     * order, each preceded by prefix and followed by suffix.
+     */
+    void complete(CharSequence input, int start, int end, String prefix, String suffix, List<String> out) {
+        int node = find(input, start, end);
+        if (node >= 0) {
+            for (int i = from[node]; i < to[node]; i++) {
+                out.add(prefix.isEmpty() && suffix.isEmpty() ? names[i] : prefix + names[i] + suffix);
+            }
+        }
+    }
+
+    int size() {
+        return names.length;
+    }
+
+    /*
+     * Returns the node reached by following input[start, end) from the root,
+     * or -1 if no name has that prefix.
+     */
+    private int find(CharSequence input, int start, int end) {
+        int node = 0;
+        for (int i = start; i < end; i++) {
+            int low = firstEdge[node];
+            int high = low + edgeCount[node] - 1;
+            char c = input.charAt(i);
+            int next = -1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (edgeChars[mid] < c) {
+                    low = mid + 1;
+                } else if (edgeChars[mid] > c) {
+                    high = mid - 1;
+                } else {
+                    next = edgeNodes[mid];
+                    break;
+                }
+            }
+            if (next < 0) {
+                return -1;
+            }
+            node = next;
+        }
+        return node;
+    }
+
+}
@@ -0,0 +1,76 @@
+package oop.project.cli;
+
+/*
+ * The position of a positional argument or flag in the storage of a Command.
+ * Values are kept unboxed in the long or double slot arrays when their
+ * converter allows it, and in the object slot array otherwise. Flags also
+ * have a presence index; flags without an argument have no value slot.
+ * Lazily converted values also have an index into the raw text ranges that
+ * the Command keeps until they are first read. Long slots also hold values
+ * such as dates as epoch days, so they record whether their converter reports
+ * integers, which the int accessors check for as the INTEGER kind.
+ */
+final class Slot {
+
+    static final byte NONE = 0;
+    static final byte LONG = 1;
+    static final byte DOUBLE = 2;
+    static final byte OBJECT = 3;
+    static final byte INTEGER = 4;
+
+    final String name;
+    final Converter<?> converter;
+    final byte kind;
+    final boolean integer;
+    final int index;
+    final int flag;
+    final int lazy;
+
+    Slot(String name, Converter<?> converter, byte kind, int index, int flag, int lazy) {
+        this.name = name;
+        this.converter = converter;
+        this.kind = kind;
+        this.integer = kind == LONG && ((LongConverter<?>) converter).isInteger();
+        this.index = index;
+        this.flag = flag;
+        this.lazy = lazy;
+    }
+
+    static byte kindOf(Converter<?> converter) {
+        if (converter == null) {
+            return NONE;
+        } else if (converter instanceof LongConverter) {
+            return LONG;
+        } else if (converter instanceof DoubleConverter) {
+            return DOUBLE;
+        } else {
+            return OBJECT;
+        }
+    }
+
+    /*
+     * Returns true if the value can be read as the given kind. Every value
+     * can be read as NONE, as an object, and INTEGER is a LONG that is an
+     * integer.
+     */
+    boolean is(byte kind) {
+        return kind == NONE || kind == this.kind || (kind == INTEGER && integer);
+    }
+
+    /*
+     * Returns the value stored for this slot in command as an object.
+     */
+    Object box(Command command) {
+        switch (kind) {
+            case LONG:
+                return ((LongConverter<?>) converter).box(command.longs[index]);
+            case DOUBLE:
+                return command.doubles[index];
+            case OBJECT:
+                return command.objects[index];
+            default:
+                return null;
+        }
+    }
+
+}
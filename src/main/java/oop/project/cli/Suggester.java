@@ -0,0 +1,311 @@
+package oop.project.cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+/*
+ * Suggests the known names closest to an unknown flag or command, using a
+ * symmetric delete index. Every string reachable from a name by deleting up
+ * to two characters is hashed into a sorted array; a lookup hashes the
+ * strings reachable from the input by the same deletions and collects the
+ * names sharing any of them, which are then checked with the exact edit
+ * distance. An insertion, deletion, substitution or swap of adjacent
+ * characters costs at most one deletion on each side, so no name within the
+ * distance is missed, and a lookup costs a few dozen binary searches however
+ * many names there are. Names shorter than six characters may be one edit
+ * away, longer ones two.
+ *
+ * The index is built the first time a suggestion is asked for, so parsers
+ * that never see a typo never pay for it.
+ */
+final class Suggester {
+
+    static final int LIMIT = 3;
+
+    private static final int MAX_DISTANCE = 2;
+    private static final int NAME_BITS = 24;
+    private static final long NAME_MASK = (1L << NAME_BITS) - 1;
+    private static final int HASH_SHIFT = NAME_BITS + 3;
+
+    private final String[] names;
+    private final String prefix;
+    private final int maxLength;
+    private volatile long[] index;
+
+    /*
+     * Prefix is prepended to each suggestion, such as -- for flags, so that
+     * suggestions read as they would be typed.
+     */
+    Suggester(Collection<String> names, String prefix) {
+        this.names = names.toArray(new String[0]);
+        Arrays.sort(this.names);
+        if (this.names.length > NAME_MASK) {
+            throw new IllegalArgumentException("Too many names: " + this.names.length);
+        }
+        this.prefix = prefix;
+        int longest = 0;
+        for (String name : this.names) {
+            longest = Math.max(longest, name.length());
+        }
+        this.maxLength = longest;
+    }
+
+    List<String> suggest(CharSequence input, int start, int end) {
+        int length = end - start;
+        if (length == 0 || names.length == 0) {
+            return List.of();
+        }
+        long[] entries = index;
+        if (entries == null) {
+            index = entries = build();
+        }
+        int maxDistance = length < 6 ? 1 : MAX_DISTANCE;
+        long[] hashes = deletions(input, start, end, maxDistance);
+        long[] masks = length <= Long.SIZE ? masks(input, start, end) : null;
+        int[][] rows = masks == null ? new int[3][maxLength + 1] : null;
+        BitSet checked = new BitSet(names.length);
+        List<long[]> matches = new ArrayList<>();
+        for (int round = 1; round <= maxDistance; round++) {
+            int[] candidates = new int[16];
+            int count = 0;
+            for (int h = 0; h < hashes.length; h++) {
+                int inputDeleted = h == 0 ? 0 : h <= length ? 1 : 2;
+                if (inputDeleted > round) {
+                    break;
+                }
+                // Pairs where both sides deleted fewer than round were seen in an earlier round.
+                long from = round == 1 || inputDeleted == round ? 0 : round;
+                long to = hashes[h] << HASH_SHIFT | (round + 1L) << NAME_BITS;
+                for (int i = lowerBound(entries, hashes[h] << HASH_SHIFT | from << NAME_BITS); i < entries.length && entries[i] < to; i++) {
+                    int name = (int) (entries[i] & NAME_MASK);
+                    if (Math.abs(names[name].length() - length) > maxDistance) {
+                        continue;
+                    }
+                    if (count == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, count * 2);
+                    }
+                    candidates[count++] = name;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                if (!checked.get(candidates[i])) {
+                    checked.set(candidates[i]);
+                    String name = names[candidates[i]];
+                    int distance = masks != null
+                        ? distance(input, start, end, masks, name)
+                        : distance(input, start, end, name, maxDistance, rows);
+                    if (distance <= maxDistance) {
+                        matches.add(new long[]{distance, candidates[i]});
+                    }
+                }
+            }
+            int close = 0;
+            for (long[] match : matches) {
+                close += match[0] <= round ? 1 : 0;
+            }
+            if (close >= LIMIT) {
+                break;
+            }
+        }
+        matches.sort((x, y) -> x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(x[1], y[1]));
+        List<String> suggestions = new ArrayList<>(LIMIT);
+        for (int i = 0; i < matches.size() && i < LIMIT; i++) {
+            suggestions.add(prefix + names[(int) matches.get(i)[1]]);
+        }
+        return List.copyOf(suggestions);
+    }
+
+    /*
+     * Hashes every deletion of up to MAX_DISTANCE characters of every name,
+     * with the index of the name in the low bits, and sorts the entries so
+     * that the names sharing a hash are adjacent.
+     */
+    private long[] build() {
+        long[][] hashes = new long[names.length][];
+        long size = 0;
+        for (int n = 0; n < names.length; n++) {
+            hashes[n] = deletions(names[n], 0, names[n].length(), MAX_DISTANCE);
+            size += hashes[n].length;
+        }
+        long[] entries = new long[Math.toIntExact(size)];
+        int count = 0;
+        for (int n = 0; n < names.length; n++) {
+            int length = names[n].length();
+            for (int h = 0; h < hashes[n].length; h++) {
+                long deleted = h == 0 ? 0 : h <= length ? 1 : 2;
+                entries[count++] = hashes[n][h] << HASH_SHIFT | deleted << NAME_BITS | n;
+            }
+        }
+        Arrays.sort(entries);
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || entries[i] != entries[unique - 1]) {
+                entries[unique++] = entries[i];
+            }
+        }
+        return Arrays.copyOf(entries, unique);
+    }
+
+    /*
+     * Returns the hashes of input[start, end) with nothing deleted, then with
+     * each character deleted, then, if maxDistance is two, with each pair of
+     * characters deleted.
+     */
+    private static long[] deletions(CharSequence input, int start, int end, int maxDistance) {
+        int length = end - start;
+        long[] hashes = new long[maxDistance < 2 ? 1 + length : 1 + length + length * (length - 1) / 2];
+        int count = 0;
+        hashes[count++] = hash(input, start, end, -1, -1);
+        for (int a = start; a < end; a++) {
+            hashes[count++] = hash(input, start, end, a, -1);
+        }
+        for (int a = start; a < end && maxDistance > 1; a++) {
+            for (int b = a + 1; b < end; b++) {
+                hashes[count++] = hash(input, start, end, a, b);
+            }
+        }
+        return hashes;
+    }
+
+    /*
+     * Returns a 37-bit hash of input[start, end) without the characters at
+     * skip1 and skip2, either of which may be -1.
+     */
+    private static long hash(CharSequence input, int start, int end, int skip1, int skip2) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = start; i < end; i++) {
+            if (i != skip1 && i != skip2) {
+                hash = (hash ^ input.charAt(i)) * 0x100000001b3L;
+            }
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash >>> HASH_SHIFT;
+    }
+
+    private static int lowerBound(long[] entries, long key) {
+        int low = 0;
+        int high = entries.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (entries[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /*
+     * Returns the bit masks of the positions of each ASCII character in
+     * input[start, end), which must be at most 64 characters long.
+     */
+    private static long[] masks(CharSequence input, int start, int end) {
+        long[] masks = new long[128];
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < masks.length) {
+                masks[c] |= 1L << (i - start);
+            }
+        }
+        return masks;
+    }
+
+    /*
+     * Returns the edit distance between input[start, end) and name, counting
+     * swaps of adjacent characters as one edit, with Hyyro's bit-parallel
+     * algorithm: each column of the distance matrix is held as vertical
+     * deltas in two words and updated in a few word operations per character
+     * of name. Masks are the input's character positions from masks().
+     */
+    private static int distance(CharSequence input, int start, int end, long[] masks, String name) {
+        int length = end - start;
+        long last = 1L << (length - 1);
+        long positive = -1L;
+        long negative = 0;
+        long diagonal = 0;
+        long previous = 0;
+        int distance = length;
+        for (int j = 0; j < name.length(); j++) {
+            char c = name.charAt(j);
+            long match = c < masks.length ? masks[c] : mask(input, start, end, c);
+            long swap = ((~diagonal & match) << 1) & previous;
+            diagonal = (((match & positive) + positive) ^ positive) | match | negative | swap;
+            long horizontalPositive = negative | ~(diagonal | positive);
+            long horizontalNegative = diagonal & positive;
+            if ((horizontalPositive & last) != 0) {
+                distance++;
+            } else if ((horizontalNegative & last) != 0) {
+                distance--;
+            }
+            horizontalPositive = horizontalPositive << 1 | 1;
+            horizontalNegative <<= 1;
+            positive = horizontalNegative | ~(diagonal | horizontalPositive);
+            negative = diagonal & horizontalPositive;
+            previous = match;
+        }
+        return distance;
+    }
+
+    private static long mask(CharSequence input, int start, int end, char c) {
+        long mask = 0;
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) == c) {
+                mask |= 1L << (i - start);
+            }
+        }
+        return mask;
+    }
+
+    /*
+     * Returns the edit distance between input[start, end) and name, counting
+     * swaps of adjacent characters as one edit, or maxDistance + 1 if it is
+     * larger than maxDistance. Only the cells within maxDistance of the
+     * diagonal are computed, in three rows of scratch space.
+     */
+    private static int distance(CharSequence input, int start, int end, String name, int maxDistance, int[][] rows) {
+        int length = end - start;
+        int far = maxDistance + 1;
+        int[] before = rows[0];
+        int[] previous = rows[1];
+        int[] row = rows[2];
+        Arrays.fill(before, 0, name.length() + 1, far);
+        Arrays.fill(row, 0, name.length() + 1, far);
+        for (int j = 0; j <= name.length(); j++) {
+            previous[j] = Math.min(j, far);
+        }
+        for (int i = 1; i <= length; i++) {
+            char c = input.charAt(start + i - 1);
+            int low = Math.max(1, i - maxDistance);
+            int high = Math.min(name.length(), i + maxDistance);
+            row[low - 1] = low == 1 ? Math.min(i, far) : far;
+            int min = far;
+            for (int j = low; j <= high; j++) {
+                char n = name.charAt(j - 1);
+                int distance = Math.min(Math.min(previous[j], row[j - 1]) + 1, previous[j - 1] + (c == n ? 0 : 1));
+                if (i > 1 && j > 1 && c == name.charAt(j - 2) && input.charAt(start + i - 2) == n) {
+                    distance = Math.min(distance, before[j - 2] + 1);
+                }
+                row[j] = Math.min(distance, far);
+                min = Math.min(min, distance);
+            }
+            if (high < name.length()) {
+                row[high + 1] = far;
+            }
+            if (min > maxDistance) {
+                return far;
+            }
+            int[] recycled = before;
+            before = previous;
+            previous = row;
+            row = recycled;
+        }
+        return previous[name.length()];
+    }
+
+}
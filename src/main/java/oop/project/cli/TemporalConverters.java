@@ -0,0 +1,398 @@
+package oop.project.cli;
+
+import java.text.ParsePosition;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalQuery;
+
+/**
+ * Converters for dates, times and durations. The ISO formats are parsed by
+ * hand directly from the characters of the input, validating every field
+ * before constructing a value, so invalid input is rejected without creating
+ * substrings or throwing. Custom formats are supported through
+ * {@link #ofPattern(String, TemporalQuery)}.
+ */
+public final class TemporalConverters {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    private static final int DAYS_0000_TO_1970 = 719_528;
+    private static final long MIN_EPOCH_SECOND = -31_557_014_167_219_200L;
+    private static final long MAX_EPOCH_SECOND = 31_556_889_864_403_199L;
+
+    /**
+     * ISO dates such as 2024-01-31, stored as epoch days. Years outside
+     * 0000 to 9999 must be signed, as in +10000-01-01.
+     */
+    public static final LongConverter<LocalDate> LOCAL_DATE = new LongConverter<>() {
+        @Override
+        public boolean convertLong(CharSequence input, int start, int end, long[] out, int index) {
+            return parseDate(input, start, end, 999_999_999, out, index) == end;
+        }
+
+        @Override
+        public LocalDate box(long value) {
+            return LocalDate.ofEpochDay(value);
+        }
+    };
+
+    /**
+     * ISO local date-times such as 2024-01-31T10:15 or 2024-01-31T10:15:30.5.
+     */
+    public static final Converter<LocalDateTime> LOCAL_DATE_TIME = (input, start, end) -> {
+        long[] fields = new long[2];
+        int i = parseDate(input, start, end, 999_999_999, fields, 0);
+        if (i < 0 || i >= end || input.charAt(i) != 'T' || parseTime(input, i + 1, end, false, fields, 1) != end) {
+            return null;
+        }
+        return LocalDateTime.of(LocalDate.ofEpochDay(fields[0]), LocalTime.ofNanoOfDay(fields[1]));
+    };
+
+    /**
+     * ISO instants such as 2024-01-31T10:15:30Z, or with an offset such as
+     * +02:00 in place of the Z. As with {@link Instant#parse(CharSequence)},
+     * 24:00:00 is the start of the next day and the leap second 23:59:60 is
+     * read as 23:59:59.
+     */
+    public static final Converter<Instant> INSTANT = (input, start, end) -> {
+        long[] fields = new long[3];
+        int i = parseDate(input, start, end, 1_000_000_000, fields, 0);
+        if (i < 0 || i >= end || input.charAt(i) != 'T') {
+            return null;
+        }
+        i = parseTime(input, i + 1, end, true, fields, 1);
+        if (i < 0 || parseOffset(input, i, end, fields, 2) != end) {
+            return null;
+        }
+        long seconds = fields[0] * SECONDS_PER_DAY + fields[1] / 1_000_000_000L - fields[2];
+        if (seconds < MIN_EPOCH_SECOND || seconds > MAX_EPOCH_SECOND) {
+            return null;
+        }
+        return Instant.ofEpochSecond(seconds, fields[1] % 1_000_000_000L);
+    };
+
+    /**
+     * Instants written as a whole number of seconds since 1970-01-01T00:00Z,
+     * stored as that number.
+     */
+    public static final LongConverter<Instant> EPOCH_SECONDS = new LongConverter<>() {
+        @Override
+        public boolean convertLong(CharSequence input, int start, int end, long[] out, int index) {
+            return Converters.parseLong(input, start, end, MIN_EPOCH_SECOND, MAX_EPOCH_SECOND, out, index);
+        }
+
+        @Override
+        public Instant box(long value) {
+            return Instant.ofEpochSecond(value);
+        }
+    };
+
+    /**
+     * ISO durations such as PT15M, P2DT3H or -PT1.5S, in the format accepted
+     * by {@link Duration#parse(CharSequence)}.
+     */
+    public static final Converter<Duration> DURATION = TemporalConverters::parseDuration;
+
+    private TemporalConverters() {}
+
+    /**
+     * Returns a converter for a custom format, such as
+     * {@code ofPattern("dd/MM/uuuu", LocalDate::from)}. The formatter is
+     * compiled once when this is called, with strict resolution so that
+     * invalid dates are rejected rather than adjusted; use uuuu rather than
+     * yyyy for years, since yyyy requires an era. The text is checked against
+     * the pattern without throwing, so only text that matches the pattern but
+     * names an invalid value, such as 31/02/2024, costs an exception.
+     */
+    public static <T> Converter<T> ofPattern(String pattern, TemporalQuery<T> query) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(pattern).withResolverStyle(ResolverStyle.STRICT);
+        return (input, start, end) -> {
+            String text = input.subSequence(start, end).toString();
+            ParsePosition position = new ParsePosition(0);
+            if (formatter.parseUnresolved(text, position) == null || position.getIndex() != text.length()) {
+                return null;
+            }
+            try {
+                return formatter.parse(text, query);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        };
+    }
+
+    /*
+     * Parses an ISO date at input[start, end) into out[index] as epoch days,
+     * returning the index after it or -1 if there is no valid date there.
+     * Years have up to 10 digits and at most maxYear in magnitude, which is
+     * larger for instants than for LocalDate.
+     */
+    static int parseDate(CharSequence input, int start, int end, long maxYear, long[] out, int index) {
+        int i = start;
+        boolean signed = i < end && (input.charAt(i) == '+' || input.charAt(i) == '-');
+        boolean negative = signed && input.charAt(i) == '-';
+        if (signed) {
+            i++;
+        }
+        int digits = 0;
+        long year = 0;
+        while (i < end && digits <= 10 && isDigit(input.charAt(i))) {
+            year = year * 10 + (input.charAt(i++) - '0');
+            digits++;
+        }
+        if (digits < 4 || (digits > 4 && !signed) || digits > 10 || (signed && !negative && digits == 4)
+                || year > maxYear || (negative && year == 0)) {
+            return -1;
+        }
+        if (negative) {
+            year = -year;
+        }
+        if (i + 6 > end || input.charAt(i) != '-' || input.charAt(i + 3) != '-') {
+            return -1;
+        }
+        int month = twoDigits(input, i + 1);
+        int day = twoDigits(input, i + 4);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return -1;
+        }
+        out[index] = epochDay(year, month, day);
+        return i + 6;
+    }
+
+    /*
+     * Parses an ISO local time HH:mm[:ss[.fffffffff]] at input[start, end)
+     * into out[index] as nanoseconds of the day, returning the index after it
+     * or -1 if there is no valid time there. The fraction may be empty, as in
+     * 10:15:30., and for instants the seconds are required, 24:00:00 is
+     * the end of the day and 23:59:60 is 23:59:59.
+     */
+    static int parseTime(CharSequence input, int start, int end, boolean instant, long[] out, int index) {
+        if (start + 5 > end || input.charAt(start + 2) != ':') {
+            return -1;
+        }
+        int hour = twoDigits(input, start);
+        int minute = twoDigits(input, start + 3);
+        int second = 0;
+        long nanos = 0;
+        int i = start + 5;
+        if (i < end && input.charAt(i) == ':') {
+            if (i + 3 > end) {
+                return -1;
+            }
+            second = twoDigits(input, i + 1);
+            i += 3;
+            if (i < end && input.charAt(i) == '.') {
+                int digits = 0;
+                i++;
+                while (i < end && digits < 9 && isDigit(input.charAt(i))) {
+                    nanos = nanos * 10 + (input.charAt(i++) - '0');
+                    digits++;
+                }
+                for (; digits < 9; digits++) {
+                    nanos *= 10;
+                }
+            }
+        } else if (instant) {
+            return -1;
+        }
+        if (instant && hour == 24 && minute == 0 && second == 0 && nanos == 0) {
+            out[index] = SECONDS_PER_DAY * 1_000_000_000L;
+            return i;
+        }
+        if (instant && hour == 23 && minute == 59 && second == 60) {
+            second = 59;
+        }
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return -1;
+        }
+        out[index] = (hour * 3600L + minute * 60L + second) * 1_000_000_000L + nanos;
+        return i;
+    }
+
+    /*
+     * Parses Z or an offset of +HH:MM or +HH:MM:SS into out[index] as seconds,
+     * returning the index after it or -1 if there is no valid offset there.
+     */
+    private static int parseOffset(CharSequence input, int start, int end, long[] out, int index) {
+        if (start < end && input.charAt(start) == 'Z') {
+            out[index] = 0;
+            return start + 1;
+        }
+        if (start + 6 > end || (input.charAt(start) != '+' && input.charAt(start) != '-')
+                || input.charAt(start + 3) != ':') {
+            return -1;
+        }
+        int hours = twoDigits(input, start + 1);
+        int minutes = twoDigits(input, start + 4);
+        int seconds = 0;
+        int i = start + 6;
+        if (i < end && input.charAt(i) == ':') {
+            if (i + 3 > end) {
+                return -1;
+            }
+            seconds = twoDigits(input, i + 1);
+            i += 3;
+        }
+        if (hours < 0 || hours > 18 || minutes < 0 || minutes > 59 || seconds < 0 || seconds > 59
+                || (hours == 18 && (minutes > 0 || seconds > 0))) {
+            return -1;
+        }
+        long total = hours * 3600L + minutes * 60L + seconds;
+        out[index] = input.charAt(start) == '-' ? -total : total;
+        return i;
+    }
+
+    /*
+     * Parses [-+]P[nD][T[nH][nM][n[.f]S]], where each number may be signed,
+     * with at least one component and a component after any T.
+     */
+    private static Duration parseDuration(CharSequence input, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            negative = input.charAt(i++) == '-';
+        }
+        if (i >= end || (input.charAt(i) != 'P' && input.charAt(i) != 'p')) {
+            return null;
+        }
+        i++;
+        long seconds = 0;
+        long nanos = 0;
+        boolean time = false;
+        boolean any = false;
+        boolean anyTime = false;
+        // Units in the order they must appear: days, then hours, minutes, seconds after T.
+        int unit = 0;
+        long[] number = new long[2];
+        try {
+            while (i < end) {
+                char c = input.charAt(i);
+                if (c == 'T' || c == 't') {
+                    if (time || unit > 1) {
+                        return null;
+                    }
+                    time = true;
+                    unit = 1;
+                    i++;
+                    continue;
+                }
+                int next = parseNumber(input, i, end, number);
+                if (next < 0 || next >= end) {
+                    return null;
+                }
+                char suffix = Character.toUpperCase(input.charAt(next));
+                int found = suffix == 'D' ? 1 : suffix == 'H' ? 2 : suffix == 'M' ? 3 : suffix == 'S' ? 4 : -1;
+                if (found < 0 || found <= unit || (found == 1) == time || (number[1] >= 0 && found != 4)) {
+                    return null;
+                }
+                long multiplier = found == 1 ? SECONDS_PER_DAY : found == 2 ? 3600 : found == 3 ? 60 : 1;
+                seconds = Math.addExact(seconds, Math.multiplyExact(number[0], multiplier));
+                if (number[1] >= 0) {
+                    nanos = number[0] < 0 || (number[0] == 0 && input.charAt(i) == '-') ? -number[1] : number[1];
+                }
+                unit = found;
+                any = true;
+                anyTime |= time;
+                i = next + 1;
+            }
+            if (!any || (time && !anyTime)) {
+                return null;
+            }
+            Duration duration = Duration.ofSeconds(seconds, nanos);
+            return negative ? duration.negated() : duration;
+        } catch (ArithmeticException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Parses a signed integer with an optional fraction of up to nine digits,
+     * which may be empty as Duration.parse allows,
+     * into number[0] and number[1] as nanoseconds, or -1 if there is no
+     * fraction. Returns the index after it, or -1 if there is no number there.
+     */
+    private static int parseNumber(CharSequence input, int start, int end, long[] number) {
+        int i = start;
+        if (i < end && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            i++;
+        }
+        int digitsStart = i;
+        while (i < end && isDigit(input.charAt(i))) {
+            i++;
+        }
+        if (i == digitsStart || !Converters.parseLong(input, start, i, Long.MIN_VALUE, Long.MAX_VALUE, number, 0)) {
+            return -1;
+        }
+        number[1] = -1;
+        if (i < end && (input.charAt(i) == '.' || input.charAt(i) == ',')) {
+            long nanos = 0;
+            int digits = 0;
+            i++;
+            while (i < end && isDigit(input.charAt(i))) {
+                if (digits++ == 9) {
+                    return -1;
+                }
+                nanos = nanos * 10 + (input.charAt(i++) - '0');
+            }
+            for (; digits < 9; digits++) {
+                nanos *= 10;
+            }
+            number[1] = nanos;
+        }
+        return i;
+    }
+
+    /*
+     * Returns the value of the two digits at input[i, i + 2), or -1 if they
+     * are not both digits.
+     */
+    private static int twoDigits(CharSequence input, int i) {
+        char tens = input.charAt(i);
+        char ones = input.charAt(i + 1);
+        return isDigit(tens) && isDigit(ones) ? (tens - '0') * 10 + (ones - '0') : -1;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int lengthOfMonth(long year, int month) {
+        switch (month) {
+            case 2:
+                return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /*
+     * The same computation as LocalDate.toEpochDay, on validated fields.
+     */
+    private static long epochDay(long year, int month, int day) {
+        long total = 365 * year;
+        if (year >= 0) {
+            total += (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+        } else {
+            total -= year / -4 - year / -100 + year / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if ((year & 3) != 0 || (year % 100 == 0 && year % 400 != 0)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+}
@@ -0,0 +1,89 @@
+package oop.project.cli;
+
+/**
+ * The tokens of an input, as read by parsers generated from
+ * {@link oop.project.cli.annotation.Command} classes. Values are converted
+ * straight from the input through the same converters CompiledParser uses,
+ * so generated parsers accept exactly the same syntax. A TokenStream can be
+ * reused for successive inputs but is not thread-safe.
+ */
+public final class TokenStream {
+
+    public static final byte WORD = Tokens.WORD;
+    public static final byte FLAG = Tokens.FLAG;
+    public static final byte QUOTED = Tokens.QUOTED;
+
+    private final Tokens tokens = new Tokens();
+    private final long[] longs = new long[1];
+    private final double[] doubles = new double[1];
+
+    /**
+     * Tokenizes input, returning false if it contains a malformed token.
+     */
+    public boolean tokenize(CharSequence input) {
+        return Tokenizer.tokenize(input, 0, input.length(), tokens);
+    }
+
+    public int count() {
+        return tokens.count;
+    }
+
+    /**
+     * Returns the kind of a token: WORD, FLAG (the name after --), or QUOTED
+     * (the text between the quotes).
+     */
+    public byte kind(int token) {
+        return tokens.isQuoted(token) ? QUOTED : tokens.kinds[token];
+    }
+
+    /**
+     * Returns true if the text of the token is exactly name.
+     */
+    public boolean matches(int token, String name) {
+        return tokens.matches(token, name);
+    }
+
+    /**
+     * Converts a quoted token, returning null if it is not valid.
+     */
+    public <T> T convert(int token, Converter<T> converter) {
+        if (tokens.kinds[token] == Tokens.QUOTED_ESCAPED) {
+            String value = tokens.value(token);
+            return converter.convert(value, 0, value.length());
+        }
+        return converter.convert(tokens.input, tokens.starts[token], tokens.ends[token]);
+    }
+
+    /**
+     * Converts a quoted token without boxing, returning false if it is not
+     * valid. The value is then available from {@link #longValue()}.
+     */
+    public boolean convertLong(int token, LongConverter<?> converter) {
+        if (tokens.kinds[token] == Tokens.QUOTED_ESCAPED) {
+            String value = tokens.value(token);
+            return converter.convertLong(value, 0, value.length(), longs, 0);
+        }
+        return converter.convertLong(tokens.input, tokens.starts[token], tokens.ends[token], longs, 0);
+    }
+
+    /**
+     * Converts a quoted token without boxing, returning false if it is not
+     * valid. The value is then available from {@link #doubleValue()}.
+     */
+    public boolean convertDouble(int token, DoubleConverter converter) {
+        if (tokens.kinds[token] == Tokens.QUOTED_ESCAPED) {
+            String value = tokens.value(token);
+            return converter.convertDouble(value, 0, value.length(), doubles, 0);
+        }
+        return converter.convertDouble(tokens.input, tokens.starts[token], tokens.ends[token], doubles, 0);
+    }
+
+    public long longValue() {
+        return longs[0];
+    }
+
+    public double doubleValue() {
+        return doubles[0];
+    }
+
+}
@@ -0,0 +1,61 @@
+package oop.project.cli;
+
+/*
+ * A single-pass scanner that splits an input into space separated tokens.
+ * Quoted tokens may contain spaces, and a backslash inside quotes escapes the
+ * next character, so "say \"hi\"" is a single token.
+ */
+final class Tokenizer {
+
+    private Tokenizer() {}
+
+    /*
+     * Scans input[from, to) into tokens. Returns false and records the offset
+     * of the malformed token if a quoted token is not terminated or its closing
+     * quote is not followed by a space.
+     */
+    static boolean tokenize(CharSequence input, int from, int to, Tokens tokens) {
+        return tokenize(input, from, to, tokens, DelimiterScanner.INSTANCE);
+    }
+
+    /*
+     * Scans with the given scanner, which finds the end of each word and run
+     * of quoted text.
+     */
+    static boolean tokenize(CharSequence input, int from, int to, Tokens tokens, DelimiterScanner scanner) {
+        tokens.reset(input);
+        int i = from;
+        while (i < to) {
+            char c = input.charAt(i);
+            if (c == ' ') {
+                i++;
+            } else if (c == '"') {
+                int start = i + 1;
+                byte kind = Tokens.QUOTED;
+                i = start;
+                while ((i = scanner.findQuoteOrBackslash(input, i, to)) < to && input.charAt(i) == '\\') {
+                    kind = Tokens.QUOTED_ESCAPED;
+                    i += 2;
+                }
+                if (i >= to || (i + 1 < to && input.charAt(i + 1) != ' ')) {
+                    tokens.error = ParseError.MALFORMED_TOKEN;
+                    tokens.errorToken = tokens.count;
+                    tokens.errorOffset = start - 1;
+                    return false;
+                }
+                tokens.add(kind, start, i);
+                i++;
+            } else {
+                int start = i;
+                i = scanner.findSpace(input, i, to);
+                if (i - start > 2 && c == '-' && input.charAt(start + 1) == '-') {
+                    tokens.add(Tokens.FLAG, start + 2, i);
+                } else {
+                    tokens.add(Tokens.WORD, start, i);
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,128 @@
+package oop.project.cli;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * The token boundaries of an input, stored as offsets into the input rather
+ * than as substrings. Flag tokens span the name after the leading --, and
+ * quoted tokens span the text between the quotes.
+ */
+final class Tokens {
+
+    static final byte WORD = 0;
+    static final byte FLAG = 1;
+    static final byte QUOTED = 2;
+    static final byte QUOTED_ESCAPED = 3;
+
+    CharSequence input;
+    int count;
+    int[] starts = new int[8];
+    int[] ends = new int[8];
+    byte[] kinds = new byte[8];
+    ParseError error;
+    int errorToken = -1;
+    int errorOffset = -1;
+    Suggester suggester;
+
+    void reset(CharSequence input) {
+        this.input = input;
+        count = 0;
+        error = null;
+        errorToken = -1;
+        errorOffset = -1;
+        suggester = null;
+    }
+
+    void add(byte kind, int start, int end) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+            kinds = Arrays.copyOf(kinds, count * 2);
+        }
+        starts[count] = start;
+        ends[count] = end;
+        kinds[count] = kind;
+        count++;
+    }
+
+    /*
+     * Records an error at the given token, or at the end of the input if the
+     * token index is past the last token, and returns null for convenience.
+     */
+    <T> T fail(ParseError error, int token) {
+        this.error = error;
+        this.errorToken = token;
+        this.errorOffset = token < count ? offset(token) : input.length();
+        return null;
+    }
+
+    /*
+     * Records an error at a token naming an unknown flag or command, whose
+     * closest known names come from suggester.
+     */
+    <T> T fail(ParseError error, int token, Suggester suggester) {
+        this.suggester = suggester;
+        return fail(error, token);
+    }
+
+    /*
+     * Returns the closest known names to the token at which parsing failed,
+     * or an empty list if the error was not an unknown name.
+     */
+    List<String> suggestions() {
+        return suggester != null ? suggester.suggest(input, starts[errorToken], ends[errorToken]) : List.of();
+    }
+
+    boolean isQuoted(int token) {
+        return kinds[token] >= QUOTED;
+    }
+
+    /*
+     * Returns the offset of the first character of the token as written,
+     * including any leading -- or opening quote.
+     */
+    int offset(int token) {
+        return kinds[token] == WORD ? starts[token] : kinds[token] == FLAG ? starts[token] - 2 : starts[token] - 1;
+    }
+
+    boolean matches(int token, String name) {
+        int start = starts[token];
+        if (ends[token] - start != name.length()) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (input.charAt(start + i) != name.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /*
+     * Materializes the text of the token, resolving backslash escapes in
+     * quoted tokens.
+     */
+    String value(int token) {
+        int start = starts[token];
+        int end = ends[token];
+        if (kinds[token] != QUOTED_ESCAPED) {
+            return input.subSequence(start, end).toString();
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c == '\\') {
+                c = input.charAt(++i);
+            }
+            builder.append(c);
+        }
+        if (input instanceof ByteCharSequence) {
+            // Each char holds one byte of UTF-8, so re-encode before decoding.
+            return new String(builder.toString().getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,29 @@
+package oop.project.cli.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record or class as the definition of a command. The annotation
+ * processor generates a parser named after the type with a Parser suffix,
+ * such as {@code AddParser} for {@code Add}, whose static {@code parse} method
+ * returns a new instance or null if the input is invalid.
+ * <p>
+ * Record components, or non-private fields of a class with a no-argument
+ * constructor, are filled from {@link Positional} arguments in declaration
+ * order and from {@link Flag} flags. Supported types are int, long, float,
+ * double and their wrappers, String, enums, and the other types with a
+ * built-in converter such as LocalDate.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface Command {
+
+    /**
+     * The name of the command as typed.
+     */
+    String value();
+
+}
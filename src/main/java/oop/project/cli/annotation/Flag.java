@@ -0,0 +1,25 @@
+package oop.project.cli.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an optional flag of a {@link Command}. A boolean or Boolean flag
+ * takes no argument and is true if present, false if absent. Flags of other
+ * types take a quoted argument and are null when absent, or empty for an
+ * Optional, or zero for a primitive. Argument types are those the default
+ * ConverterRegistry supports; any other type is a compile error.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface Flag {
+
+    /**
+     * The name of the flag without the leading --, by default the name of the
+     * field or component.
+     */
+    String value() default "";
+
+}
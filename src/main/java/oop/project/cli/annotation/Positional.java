@@ -0,0 +1,15 @@
+package oop.project.cli.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a required positional argument of a {@link Command}. Arguments are
+ * matched in declaration order, and their types must be ones the default
+ * ConverterRegistry supports, other than boolean.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+public @interface Positional {}
@@ -0,0 +1,1337 @@
+package oop.project.cli;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.sun.management.ThreadMXBean;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class CliParserTests {
+
+    @Nested
+    class Compile {
+
+        @Test
+        public void testManyFlags() {
+            CliParser parser = new CliParser("many", false);
+            for (int i = 0; i < 300; i++) {
+                parser.addFlag("flag" + i, Integer.valueOf(0));
+            }
+            CompiledParser compiled = parser.compile();
+            Command command = compiled.parse("many --flag0 \"0\" --flag299 \"299\"");
+            Assertions.assertNotNull(command);
+            Assertions.assertEquals(299, command.getFlags().get("flag299").getArg().get());
+            Assertions.assertNull(compiled.parse("many --flag300 \"300\""));
+        }
+
+        @Test
+        public void testCompiledIsSnapshot() {
+            CliParser parser = new CliParser("snap", false);
+            CompiledParser compiled = parser.compile();
+            parser.addArg("");
+            Assertions.assertNotNull(compiled.parse("snap"));
+            Assertions.assertNull(parser.parse("snap"));
+            Assertions.assertNotNull(parser.parse("snap \"value\""));
+        }
+
+    }
+
+    @Nested
+    class Tokenize {
+
+        @Test
+        public void testQuotedSpacesAndEscapes() {
+            Tokens tokens = new Tokens();
+            String input = "echo  --text \"say \\\"hi\\\"\" \"\"";
+            Assertions.assertTrue(Tokenizer.tokenize(input, 0, input.length(), tokens));
+            Assertions.assertEquals(4, tokens.count);
+            Assertions.assertEquals("echo", tokens.value(0));
+            Assertions.assertEquals("text", tokens.value(1));
+            Assertions.assertEquals("say \"hi\"", tokens.value(2));
+            Assertions.assertEquals("", tokens.value(3));
+        }
+
+        @Test
+        public void testUnterminatedQuote() {
+            Tokens tokens = new Tokens();
+            String input = "echo \"ok\" \"open";
+            Assertions.assertFalse(Tokenizer.tokenize(input, 0, input.length(), tokens));
+            Assertions.assertEquals(10, tokens.errorOffset);
+        }
+
+        @Test
+        public void testTextAfterClosingQuote() {
+            Tokens tokens = new Tokens();
+            String input = "echo \"a\"b";
+            Assertions.assertFalse(Tokenizer.tokenize(input, 0, input.length(), tokens));
+            Assertions.assertEquals(5, tokens.errorOffset);
+        }
+
+    }
+
+    @Nested
+    class Subcommands {
+
+        @Test
+        public void testDeepNesting() {
+            CliParser root = new CliParser("level0", false);
+            CliParser parent = root;
+            StringBuilder input = new StringBuilder("level0");
+            for (int i = 1; i <= 50; i++) {
+                CliParser child = new CliParser("level" + i, false).addArg(Integer.valueOf(0));
+                parent.addSubparser(child);
+                parent = child;
+                input.append(" level").append(i).append(" \"").append(i).append('"');
+            }
+            Command command = root.compile().parse(input.toString());
+            for (int i = 1; i <= 50; i++) {
+                command = command.getSubcommand().orElseThrow();
+                Assertions.assertEquals("level" + i, command.getName());
+                Assertions.assertEquals(i, command.getArgs().get(0));
+            }
+            Assertions.assertTrue(command.getSubcommand().isEmpty());
+        }
+
+        @Test
+        public void testInvalidSubcommandFailsParent() {
+            CliParser parser = new CliParser("outer", false).addSubparser(new CliParser("inner", false));
+            Assertions.assertNull(parser.parse("outer inner \"extraneous\""));
+        }
+
+    }
+
+    @Nested
+    class Results {
+
+        private final CompiledParser parser = new CliParser("sub", false)
+                .addFlag("left", Double.valueOf(0)).addArg(Double.valueOf(0)).compile();
+
+        @Test
+        public void testSuccess() {
+            ParseResult result = parser.parseResult("sub --left \"1.0\" \"2.0\"");
+            Assertions.assertTrue(result.isSuccess());
+            Assertions.assertEquals(2.0, result.getCommand().getArgs().get(0));
+            Assertions.assertNull(result.getError());
+        }
+
+        @Test
+        public void testInvalidFlag() {
+            assertFailure(parser.parseResult("sub --right \"1.0\""), ParseError.INVALID_FLAG, 1, 4);
+        }
+
+        @Test
+        public void testInvalidArgument() {
+            assertFailure(parser.parseResult("sub --left \"one\" \"2.0\""), ParseError.INVALID_ARGUMENT, 2, 11);
+        }
+
+        @Test
+        public void testMissingArgument() {
+            assertFailure(parser.parseResult("sub --left \"1.0\""), ParseError.INVALID_FORMAT, 3, 16);
+        }
+
+        @Test
+        public void testMalformedToken() {
+            assertFailure(parser.parseResult("sub \"2.0"), ParseError.MALFORMED_TOKEN, 1, 4);
+        }
+
+        private void assertFailure(ParseResult result, ParseError error, int tokenIndex, int offset) {
+            Assertions.assertFalse(result.isSuccess());
+            Assertions.assertNull(result.getCommand());
+            Assertions.assertEquals(error, result.getError());
+            Assertions.assertEquals(tokenIndex, result.getTokenIndex());
+            Assertions.assertEquals(offset, result.getOffset());
+        }
+
+    }
+
+    @Nested
+    class TypedAccessors {
+
+        private final CompiledParser parser = new CliParser("event", false)
+                .addArg(Integer.class).addArg(String.class)
+                .addFlag("ratio", Double.class).addFlag("count", Long.class).addFlag("quiet", null)
+                .compile();
+
+        @Test
+        public void testPositional() {
+            Command command = parser.parseResult("event \"7\" \"title\"").getCommand();
+            Assertions.assertEquals(2, command.getArgCount());
+            Assertions.assertEquals(7, command.getInt(0));
+            Assertions.assertEquals("title", command.getString(1));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> command.getDouble(0));
+            Assertions.assertThrows(IndexOutOfBoundsException.class, () -> command.getInt(2));
+        }
+
+        @Test
+        public void testFlags() {
+            Command command = parser.parseResult("event --ratio \"0.5\" --quiet \"7\" \"title\"").getCommand();
+            Assertions.assertTrue(command.hasFlag("ratio"));
+            Assertions.assertTrue(command.hasFlag("quiet"));
+            Assertions.assertFalse(command.hasFlag("count"));
+            Assertions.assertFalse(command.hasFlag("unknown"));
+            Assertions.assertEquals(0.5, command.getDouble("ratio"));
+            Assertions.assertThrows(NoSuchElementException.class, () -> command.getLong("count"));
+        }
+
+        @Test
+        public void testDatesAreNotIntegers() {
+            Command command = new CliParser("due", false).addArg(LocalDate.class)
+                    .addFlag("until", LocalDate.class).compile()
+                    .parseResult("due --until \"2024-02-01\" \"2024-01-31\"").getCommand();
+            Assertions.assertEquals(LocalDate.of(2024, 1, 31), command.get(0, LocalDate.class));
+            Assertions.assertEquals(LocalDate.of(2024, 2, 1), command.get("until", LocalDate.class));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> command.getInt(0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> command.getInt("until"));
+            Assertions.assertEquals(LocalDate.of(2024, 1, 31).toEpochDay(), command.getLong(0));
+            Assertions.assertEquals(LocalDate.of(2024, 2, 1).toEpochDay(), command.getLong("until"));
+        }
+
+        @Test
+        public void testCollectionsAreReadOnly() {
+            Command command = parser.parseResult("event --count \"9\" \"7\" \"title\"").getCommand();
+            Assertions.assertEquals(9L, command.getFlags().get("count").getArg().get());
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> command.getArgs().set(0, 1));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> command.getFlags().clear());
+        }
+
+    }
+
+    @Nested
+    class Bulk {
+
+        private final CompiledParser parser = new CliParser("sqrt", false).addArg(Integer.class).compile();
+
+        private List<String> inputs(int count, int invalidFrom) {
+            List<String> inputs = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                inputs.add(i >= invalidFrom && i % 100 == 0 ? "sqrt \"x\"" : "sqrt \"" + i + "\"");
+            }
+            return inputs;
+        }
+
+        @Test
+        public void testCollectAllKeepsOrder() {
+            List<ParseResult> results = parser.parseAll(inputs(10_000, 5_000));
+            Assertions.assertEquals(10_000, results.size());
+            for (int i = 0; i < results.size(); i++) {
+                if (i >= 5_000 && i % 100 == 0) {
+                    Assertions.assertEquals(ParseError.INVALID_ARGUMENT, results.get(i).getError());
+                } else {
+                    Assertions.assertEquals(i, results.get(i).getCommand().getInt(0));
+                }
+            }
+        }
+
+        @Test
+        public void testFailFastStopsAtFirstFailure() {
+            List<ParseResult> results = parser.parseAll(inputs(10_000, 5_000), BulkPolicy.FAIL_FAST);
+            Assertions.assertEquals(5_001, results.size());
+            Assertions.assertFalse(results.get(5_000).isSuccess());
+            Assertions.assertEquals(4_999, results.get(4_999).getCommand().getInt(0));
+        }
+
+        @Test
+        public void testParallelStream() {
+            List<ParseResult> results = parser.parse(inputs(10_000, 10_000).parallelStream()).collect(Collectors.toList());
+            for (int i = 0; i < results.size(); i++) {
+                Assertions.assertEquals(i, results.get(i).getCommand().getInt(0));
+            }
+        }
+
+    }
+
+    @Nested
+    class Batch {
+
+        @Test
+        public void testErrorsStayInOutput() throws IOException {
+            String input = "add \"1\" \"2\"\nadd \"one\" \"2\"\nlist\nsqrt \"4\"\n";
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PrintStream stdout = System.out;
+            ByteArrayOutputStream printed = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(printed));
+            try {
+                new BatchRunner(Scenarios::parseOrMessage, 2).run(
+                        Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))), out);
+            } finally {
+                System.setOut(stdout);
+            }
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            Assertions.assertEquals(4, lines.length);
+            Assertions.assertEquals(ParseError.INVALID_ARGUMENT.getMessage(), lines[1]);
+            Assertions.assertTrue(lines[2].startsWith("Unexpected exception: java.lang.IllegalArgumentException"), lines[2]);
+            Assertions.assertEquals("{number=4}", lines[3]);
+            Assertions.assertEquals(0, printed.size());
+        }
+
+    }
+
+    @Nested
+    class Log {
+
+        private final CompiledParser parser = new CliParser("note", false)
+                .addFlag("count", Integer.class).addArg(String.class).compile();
+
+        @Test
+        public void testMappedLines() throws IOException {
+            Path file = Files.createTempFile("commands", ".log");
+            try {
+                Files.writeString(file, "note --count \"3\" \"caf\u00e9 au lait\"\r\nnote \"x\" \"y\"\n\nnote \"last\"");
+                for (long window : new long[]{1L << 30, 40}) {
+                    List<ParseResult> results = new ArrayList<>();
+                    long lines = CommandLog.parse(file, parser, (lineNumber, result) -> {
+                        Assertions.assertEquals(results.size() + 1, lineNumber);
+                        results.add(result);
+                    }, window);
+                    Assertions.assertEquals(4, lines);
+                    Assertions.assertEquals(3, results.get(0).getCommand().getInt("count"));
+                    Assertions.assertEquals("caf\u00e9 au lait", results.get(0).getCommand().getString(0));
+                    Assertions.assertEquals(ParseError.INVALID_FORMAT, results.get(1).getError());
+                    Assertions.assertFalse(results.get(2).isSuccess());
+                    Assertions.assertEquals("last", results.get(3).getCommand().getString(0));
+                }
+            } finally {
+                Files.delete(file);
+            }
+        }
+
+    }
+
+    @Nested
+    class Registry {
+
+        private final CommandRegistry registry = new CommandRegistry(
+                new CliParser("add", false).addArg(Integer.class).addArg(Integer.class),
+                new CliParser("echo", false).addArg(String.class));
+
+        @Test
+        public void testDispatch() {
+            Assertions.assertEquals(3, registry.parseResult("add \"1\" \"3\"").getCommand().getInt(1));
+            Assertions.assertEquals("hi", registry.parseResult("echo \"hi\"").getCommand().getString(0));
+            Assertions.assertSame(registry.get("echo"), registry.get("echo"));
+        }
+
+        @Test
+        public void testUnknownCommand() {
+            ParseResult result = registry.parseResult("  mul \"1\" \"3\"");
+            Assertions.assertEquals(ParseError.UNKNOWN_COMMAND, result.getError());
+            Assertions.assertEquals(2, result.getOffset());
+        }
+
+        @Test
+        public void testDuplicateCommand() {
+            Assertions.assertThrows(IllegalArgumentException.class,
+                    () -> new CommandRegistry(new CliParser("add", false), new CliParser("add", false)));
+        }
+
+    }
+
+    @Nested
+    class Cache {
+
+        private final CompiledParser parser = new CliParser("sqrt", false).addArg(Integer.class).compile();
+
+        @Test
+        public void testHitsAndMisses() {
+            ParseCache cache = new ParseCache(parser::parseResult, 100);
+            ParseResult first = cache.parseResult("sqrt \"4\"");
+            Assertions.assertSame(first, cache.parseResult("sqrt \"4\""));
+            Assertions.assertFalse(cache.parseResult("sqrt \"x\"").isSuccess());
+            Assertions.assertEquals(1, cache.getHitCount());
+            Assertions.assertEquals(2, cache.getMissCount());
+            Assertions.assertEquals(2, cache.size());
+        }
+
+        @Test
+        public void testBoundedWithEvictions() {
+            ParseCache cache = new ParseCache(parser::parseResult, 64);
+            for (int i = 0; i < 1_000; i++) {
+                cache.parseResult("sqrt \"" + i + "\"");
+            }
+            Assertions.assertTrue(cache.size() <= 64 + 64, "size " + cache.size());
+            Assertions.assertEquals(1_000 - cache.size(), cache.getEvictionCount());
+        }
+
+        @Test
+        public void testCachedCommandIsReadOnly() {
+            ParseCache cache = new ParseCache(parser::parseResult, 10);
+            Command command = cache.parseResult("sqrt \"4\"").getCommand();
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> command.getArgs().set(0, 9));
+            Assertions.assertEquals(4, cache.parseResult("sqrt \"4\"").getCommand().getInt(0));
+        }
+
+    }
+
+    @Nested
+    class Metrics {
+
+        @Test
+        public void testCounters() {
+            ParserMetrics metrics = new ParserMetrics();
+            CommandRegistry registry = new CommandRegistry(metrics,
+                    new CliParser("sqrt", false).addArg(Integer.class),
+                    new CliParser("echo", false).addArg(String.class));
+            registry.parseResult("sqrt \"4\"");
+            registry.parseResult("sqrt \"four\"");
+            registry.parseResult("echo \"hi\"");
+            registry.parseResult("echo --loud \"hi\"");
+            registry.parseResult("unknown");
+            Assertions.assertEquals(5, metrics.getParseCount());
+            Assertions.assertEquals(2, metrics.getSuccessCount());
+            Assertions.assertEquals(3, metrics.getFailureCount());
+            Assertions.assertEquals(1, metrics.getFailureCount(ParseError.INVALID_ARGUMENT));
+            Assertions.assertEquals(1, metrics.getFailureCount(ParseError.INVALID_FLAG));
+            Assertions.assertEquals(1, metrics.getFailureCount(ParseError.UNKNOWN_COMMAND));
+            Assertions.assertEquals(2, (long) metrics.getParseCountsByCommand().get("sqrt"));
+            Assertions.assertTrue(metrics.getLatencyNanos("sqrt", 99) > 0);
+        }
+
+        @Test
+        public void testRegistryLeavesBuildersUnchanged() {
+            ParserMetrics metrics = new ParserMetrics();
+            CliParser sqrt = new CliParser("sqrt", false).addArg(Integer.class);
+            CommandRegistry registry = new CommandRegistry(metrics, sqrt);
+            sqrt.parseResult("sqrt \"4\"");
+            sqrt.compile().parseResult("sqrt \"4\"");
+            Assertions.assertEquals(0, metrics.getParseCount());
+            registry.parseResult("sqrt \"4\"");
+            Assertions.assertEquals(1, metrics.getParseCount());
+        }
+
+        @Test
+        public void testJmx() throws Exception {
+            ParserMetrics metrics = new ParserMetrics();
+            new CliParser("sqrt", false).addArg(Integer.class).withMetrics(metrics).compile().parseResult("sqrt \"4\"");
+            ObjectName name = metrics.register("test");
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                Assertions.assertEquals(1L, server.getAttribute(name, "SuccessCount"));
+            } finally {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+        }
+
+        @Test
+        public void testHistogramBuckets() {
+            for (long value : new long[]{0, 3, 4, 7, 8, 1_000, 123_456_789, Long.MAX_VALUE}) {
+                int index = LatencyHistogram.index(value);
+                Assertions.assertTrue(LatencyHistogram.upperBound(index) >= value);
+                Assertions.assertTrue(index == 0 || LatencyHistogram.upperBound(index - 1) < value);
+            }
+        }
+
+    }
+
+    @Nested
+    class Lazy {
+
+        @Test
+        public void testDeferredValues() {
+            CompiledParser parser = new CliParser("sub", false).setLazy(true)
+                    .addFlag("left", Double.valueOf(0)).addArg(Integer.valueOf(0)).compile();
+            ParseResult result = parser.parseResult("sub --left \"1.5\" \"seven\"");
+            Assertions.assertTrue(result.isSuccess());
+            Command command = result.getCommand();
+            Assertions.assertEquals(1.5, command.getDouble("left"));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> command.getInt(0));
+            Assertions.assertThrows(IllegalArgumentException.class, command::getArgs);
+        }
+
+        @Test
+        public void testEagerValue() {
+            CompiledParser parser = new CliParser("add", false).setLazy(true)
+                    .addArg(Integer.valueOf(0), true).addArg(Integer.valueOf(0)).compile();
+            Assertions.assertEquals(ParseError.INVALID_ARGUMENT, parser.parseResult("add \"one\" \"2\"").getError());
+            Assertions.assertEquals(2, parser.parseResult("add \"1\" \"2\"").getCommand().getInt(1));
+        }
+
+        @Test
+        public void testMemoized() {
+            AtomicInteger conversions = new AtomicInteger();
+            Converter<String> counting = (input, start, end) -> {
+                conversions.incrementAndGet();
+                return input.subSequence(start, end).toString();
+            };
+            Command command = new CliParser("echo", false).setLazy(true).addArg(counting).compile()
+                    .parseResult("echo \"hi\"").getCommand();
+            Assertions.assertEquals(0, conversions.get());
+            Assertions.assertEquals("hi", command.getString(0));
+            Assertions.assertEquals("hi", command.getString(0));
+            Assertions.assertEquals(1, conversions.get());
+        }
+
+    }
+
+    @Nested
+    class Bytes {
+
+        private final CompiledParser parser = new CliParser("scheduleEvent", false)
+                .addArg(LocalDate.class).addArg(String.class)
+                .addFlag("location", String.class).addFlag("reminder", Integer.class).compile();
+
+        @Test
+        public void testArray() {
+            byte[] bytes = "xxscheduleEvent --reminder \"15\" \"2023-11-25\" \"Caf\u00e9 \\\"\u00c9t\u00e9\\\"\"yy".getBytes(StandardCharsets.UTF_8);
+            Command command = parser.parseResult(bytes, 2, bytes.length - 4).getCommand();
+            Assertions.assertEquals(15, command.getInt("reminder"));
+            Assertions.assertEquals(LocalDate.of(2023, 11, 25), command.get(0, LocalDate.class));
+            Assertions.assertEquals("Caf\u00e9 \"\u00c9t\u00e9\"", command.getString(1));
+        }
+
+        @Test
+        public void testDirectBuffer() {
+            byte[] bytes = "scheduleEvent --location \"Z\u00fcrich\" \"2023-11-25\" \"Meeting\"".getBytes(StandardCharsets.UTF_8);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 1).put((byte) ' ').put(bytes).flip().position(1);
+            Command command = parser.parseResult(buffer).getCommand();
+            Assertions.assertEquals("Z\u00fcrich", command.getString("location"));
+            Assertions.assertEquals(1, buffer.position());
+        }
+
+        @Test
+        public void testErrorOffset() {
+            byte[] bytes = "scheduleEvent --location \"Z\u00fcrich\" \"2023-11-25\" \"Meeting".getBytes(StandardCharsets.UTF_8);
+            ParseResult result = parser.parseResult(bytes, 0, bytes.length);
+            Assertions.assertEquals(ParseError.MALFORMED_TOKEN, result.getError());
+            Assertions.assertEquals(48, result.getOffset());
+        }
+
+        @Test
+        public void testNonAsciiNames() {
+            CommandRegistry registry = new CommandRegistry(new CliParser("gr\u00fc\u00df", false).addFlag("gr\u00f6\u00dfe", Integer.class));
+            byte[] bytes = "gr\u00fc\u00df --gr\u00f6\u00dfe \"3\"".getBytes(StandardCharsets.UTF_8);
+            Assertions.assertEquals(3, registry.parseResult(bytes, 0, bytes.length).getCommand().getInt("gr\u00f6\u00dfe"));
+        }
+
+    }
+
+    @Nested
+    class Server {
+
+        private final CommandRegistry registry = new CommandRegistry(
+                new CliParser("add", false).addArg(Integer.class).addArg(Integer.class));
+
+        private List<String> exchange(SocketAddress address, String request, int lines) throws IOException {
+            try (SocketChannel channel = SocketChannel.open(address)) {
+                channel.write(ByteBuffer.wrap(request.getBytes(StandardCharsets.UTF_8)));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                List<String> responses = new ArrayList<>();
+                for (int i = 0; i < lines; i++) {
+                    responses.add(reader.readLine());
+                }
+                return responses;
+            }
+        }
+
+        private void serve(SocketAddress bind, ServerTest test) throws Exception {
+            CommandServer server = new CommandServer(registry,
+                    command -> command.getInt(0) + command.getInt(1), 4);
+            SocketAddress address = server.bind(bind);
+            Thread thread = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            thread.start();
+            try {
+                test.run(address);
+            } finally {
+                server.close();
+                thread.join();
+            }
+        }
+
+        @Test
+        public void testPipelined() throws Exception {
+            serve(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), address -> Assertions.assertEquals(
+                    List.of("3", "Error: Invalid argument", "Error: Unknown command", "30"),
+                    exchange(address, "add \"1\" \"2\"\nadd \"x\" \"2\"\r\nsub \"1\"\nadd \"10\" \"20\"\n", 4)));
+        }
+
+        @Test
+        public void testUnixSocket() throws Exception {
+            Path dir = Files.createTempDirectory("server");
+            Path socket = dir.resolve("cli.sock");
+            try {
+                serve(UnixDomainSocketAddress.of(socket), address -> Assertions.assertEquals(
+                        List.of("7"), exchange(address, "add \"3\" \"4\"\n", 1)));
+            } finally {
+                Files.deleteIfExists(socket);
+                Files.delete(dir);
+            }
+        }
+
+        @Test
+        public void testCloseBeforeBind() throws IOException {
+            new CommandServer(registry, command -> command.getInt(0), 4).close();
+        }
+
+        @Test
+        public void testCloseDisconnectsClients() throws Exception {
+            CommandServer server = new CommandServer(registry,
+                    command -> command.getInt(0) + command.getInt(1), 4);
+            SocketAddress address = server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            Thread thread = new Thread(() -> {
+                try {
+                    server.serve();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            thread.start();
+            try (SocketChannel channel = SocketChannel.open(address)) {
+                channel.write(ByteBuffer.wrap("add \"1\" \"2\"\n".getBytes(StandardCharsets.UTF_8)));
+                BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+                Assertions.assertEquals("3", reader.readLine());
+                server.close();
+                Assertions.assertNull(reader.readLine());
+            } finally {
+                server.close();
+                thread.join();
+            }
+        }
+
+    }
+
+    @Nested
+    class Complete {
+
+        enum Role { ADMIN, AUDITOR, USER }
+
+        private final Completer completer = new Completer(
+                new CliParser("calc", true)
+                        .addSubparser(new CliParser("add", false).addArg(Integer.class).addArg(Integer.class))
+                        .addSubparser(new CliParser("sqrt", false).addArg(Integer.class))
+                        .addSubparser(new CliParser("sub", false).addFlag("left", Double.class).addArg(Double.class)),
+                new CliParser("setUserRole", false).addArg(String.class)
+                        .addFlag("role", Role.class).addFlag("expires", LocalDate.class).addFlag("force", null));
+
+        @ParameterizedTest
+        @MethodSource
+        public void testComplete(String name, String input, int start, List<String> candidates, String hint) {
+            Completion completion = completer.complete(input, input.length());
+            Assertions.assertEquals(start, completion.getStart());
+            Assertions.assertEquals(candidates, completion.getCandidates());
+            Assertions.assertEquals(hint, completion.getHint());
+        }
+
+        public static Stream<Arguments> testComplete() {
+            return Stream.of(
+                Arguments.of("Empty", "", 0, List.of("calc", "setUserRole"), null),
+                Arguments.of("Root Prefix", "ca", 0, List.of("calc"), null),
+                Arguments.of("Subcommands", "calc ", 5, List.of("add", "sqrt", "sub"), null),
+                Arguments.of("Subcommand Prefix", "calc s", 5, List.of("sqrt", "sub"), null),
+                Arguments.of("Positional Hint", "calc add \"1\" ", 13, List.of(), "Integer"),
+                Arguments.of("Flags And Hint", "setUserRole ", 12, List.of("--expires", "--force", "--role"), "String"),
+                Arguments.of("Flag Prefix", "setUserRole --f", 12, List.of("--force"), null),
+                Arguments.of("Flag Value", "setUserRole --role ", 19, List.of("\"ADMIN\"", "\"AUDITOR\"", "\"USER\""), null),
+                Arguments.of("Open Quote", "setUserRole --role \"A", 19, List.of("\"ADMIN\"", "\"AUDITOR\""), null),
+                Arguments.of("Flag Value Hint", "setUserRole --expires \"20", 22, List.of(), "LocalDate"),
+                Arguments.of("After Flag Value", "setUserRole --role \"USER\" --", 26, List.of("--expires", "--force", "--role"), null),
+                Arguments.of("Unknown Command", "list ", 0, List.of(), null),
+                Arguments.of("Unknown Flag", "setUserRole --color \"red\" ", 12, List.of(), null)
+            );
+        }
+
+        @Test
+        public void testCursor() {
+            Assertions.assertEquals(List.of("sqrt", "sub"), completer.complete("calc sub \"1\"", 6).getCandidates());
+        }
+
+        @Test
+        public void testLargeTree() {
+            CliParser root = new CliParser("tool", true);
+            for (int i = 0; i < 5000; i++) {
+                CliParser subparser = new CliParser("command" + i, false);
+                for (int j = 0; j < 100; j++) {
+                    subparser.addFlag("option" + j, j % 2 == 0 ? Integer.class : null);
+                }
+                root.addSubparser(subparser);
+            }
+            Completer large = new Completer(root);
+            Assertions.assertEquals(1111, large.complete("tool command1", 13).getCandidates().size());
+            Assertions.assertEquals(11, large.complete("tool command4999 --option1", 26).getCandidates().size());
+        }
+
+    }
+
+    @Nested
+    class LazySubparsers {
+
+        private final AtomicInteger loads = new AtomicInteger();
+        private final CliParser root = new CliParser("calc", true)
+                .addSubparser(new CliParser("add", false).addArg(Integer.class).addArg(Integer.class))
+                .addSubparser("sqrt", () -> {
+                    loads.incrementAndGet();
+                    return new CliParser("sqrt", false).addArg(Integer.class);
+                });
+
+        @Test
+        public void testLoadedOnFirstUse() {
+            CompiledParser parser = root.compile();
+            Assertions.assertEquals(4, parser.parse("calc add \"3\" \"4\"").getSubcommand().get().getInt(1));
+            Assertions.assertEquals(0, loads.get());
+            Assertions.assertEquals(9, parser.parse("calc sqrt \"9\"").getSubcommand().get().getInt(0));
+            Assertions.assertEquals(16, parser.parse("calc sqrt \"16\"").getSubcommand().get().getInt(0));
+            Assertions.assertEquals(1, loads.get());
+        }
+
+        @Test
+        public void testErrorsInSubtree() {
+            ParseResult result = root.compile().parseResult("calc sqrt \"nine\"");
+            Assertions.assertFalse(result.isSuccess());
+            Assertions.assertEquals(1, loads.get());
+        }
+
+        @Test
+        public void testNameMismatch() {
+            CompiledParser parser = new CliParser("calc", true)
+                    .addSubparser("sqrt", () -> new CliParser("root", false)).compile();
+            Assertions.assertThrows(IllegalStateException.class, () -> parser.parse("calc sqrt"));
+        }
+
+        @Test
+        public void testAddedAfterCompile() {
+            CompiledParser parser = root.compile();
+            root.addSubparser("neg", () -> new CliParser("neg", false).addArg(Integer.class));
+            Assertions.assertFalse(parser.parseResult("calc neg \"1\"").isSuccess());
+            Assertions.assertNotNull(parser.parseTable(List.of("calc neg \"1\"")).getError(0));
+        }
+
+        @Test
+        public void testComplete() {
+            Completer completer = new Completer(root);
+            Assertions.assertEquals(List.of("add", "sqrt"), completer.complete("calc ", 5).getCandidates());
+            Assertions.assertEquals(0, loads.get());
+            Assertions.assertEquals("Integer", completer.complete("calc sqrt ", 10).getHint());
+            Assertions.assertEquals("Integer", completer.complete("calc sqrt ", 10).getHint());
+            Assertions.assertEquals(1, loads.get());
+        }
+
+    }
+
+    @Nested
+    class Context {
+
+        @Test
+        public void testReusedCommand() {
+            ParseContext context = new ParseContext();
+            CompiledParser parser = new CliParser("sub", false).addFlag("left", Double.class).addArg(Double.class).compile();
+            Command first = parser.parse("sub --left \"1.5\" \"2.0\"", context);
+            Assertions.assertEquals(1.5, first.getDouble("left"));
+            Command second = parser.parse("sub \"3.0\"", context);
+            Assertions.assertSame(first, second);
+            Assertions.assertFalse(second.hasFlag("left"));
+            Assertions.assertEquals(3.0, second.getDouble(0));
+        }
+
+        @Test
+        public void testRecompiledParsersAreDropped() {
+            ParseContext context = new ParseContext();
+            CliParser builder = new CliParser("calc", true)
+                    .addSubparser(new CliParser("sqrt", false).addArg(Integer.class));
+            for (int i = 0; i < 1_000; i++) {
+                CompiledParser parser = builder.compile();
+                Assertions.assertEquals(4, parser.parse("calc sqrt \"4\"", context).getSubcommand().get().getInt(0));
+            }
+            Assertions.assertTrue(context.commandCount() <= 64, context.commandCount() + " commands");
+        }
+
+        @Test
+        public void testError() {
+            ParseContext context = ParseContext.forCurrentThread();
+            Assertions.assertNull(Scenarios.registry().parse("add \"1\" --x", context));
+            Assertions.assertEquals(ParseError.INVALID_FLAG, context.getError());
+            Assertions.assertEquals(8, context.getOffset());
+            Assertions.assertNull(Scenarios.registry().parse("list", context));
+            Assertions.assertEquals(ParseError.UNKNOWN_COMMAND, context.getError());
+            Assertions.assertNotNull(Scenarios.registry().parse("calc add", context));
+            Assertions.assertNull(context.getError());
+            Assertions.assertEquals(-1, context.getOffset());
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        public void testZeroAllocation(String name, String input) {
+            ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return;
+            }
+            threads.setThreadAllocatedMemoryEnabled(true);
+            CommandRegistry registry = Scenarios.registry();
+            ParseContext context = new ParseContext();
+            ByteBuffer bytes = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+            long sum = 0;
+            for (int i = 0; i < 10_000; i++) {
+                sum += read(registry.parse(input, context)) + read(registry.parse(bytes, context));
+            }
+            int iterations = 100_000;
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for (int i = 0; i < iterations; i++) {
+                sum += read(registry.parse(input, context)) + read(registry.parse(bytes, context));
+            }
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            Assertions.assertTrue(sum > 0);
+            Assertions.assertEquals(0, allocated / iterations, allocated + " bytes");
+        }
+
+        public static Stream<Arguments> testZeroAllocation() {
+            return Stream.of(
+                Arguments.of("Add", "add \"1\" \"2\""),
+                Arguments.of("Sub", "sub --left \"1.0\" \"2.0\""),
+                Arguments.of("Sub Without Flag", "sub \"2.0\""),
+                Arguments.of("Sqrt", "sqrt \"4\""),
+                Arguments.of("Calc", "calc sqrt"),
+                Arguments.of("Invalid", "add \"one\" \"two\"")
+            );
+        }
+
+        private static long read(Command command) {
+            if (command == null) {
+                return 1;
+            }
+            switch (command.getName()) {
+                case "add":
+                    return command.getInt(0) + command.getInt(1);
+                case "sub":
+                    return (long) (command.getDouble(0) + (command.hasFlag("left") ? command.getDouble("left") : 0));
+                case "sqrt":
+                    return command.getInt(0);
+                default:
+                    return command.getArgCount() + 1;
+            }
+        }
+
+    }
+
+    @Nested
+    class Processor {
+
+        /*
+         * A publisher of a fixed list of lines that counts how many have
+         * been requested.
+         */
+        private final class Lines implements Flow.Publisher<String> {
+
+            final List<String> lines;
+            final AtomicLong requested = new AtomicLong();
+            volatile boolean cancelled;
+
+            Lines(List<String> lines) {
+                this.lines = lines;
+            }
+
+            @Override
+            public void subscribe(Flow.Subscriber<? super String> subscriber) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    int next;
+
+                    @Override
+                    public synchronized void request(long n) {
+                        requested.addAndGet(n);
+                        for (long i = 0; i < n && next < lines.size() && !cancelled; i++) {
+                            subscriber.onNext(lines.get(next++));
+                        }
+                        if (next == lines.size() && !cancelled) {
+                            next++;
+                            subscriber.onComplete();
+                        }
+                    }
+
+                    @Override
+                    public void cancel() {
+                        cancelled = true;
+                    }
+                });
+            }
+
+        }
+
+        /*
+         * Collects results, requesting the given number on subscribe.
+         */
+        private final class Results implements Flow.Subscriber<ParseResult> {
+
+            final List<ParseResult> results = new ArrayList<>();
+            final CountDownLatch done = new CountDownLatch(1);
+            final long initial;
+            Flow.Subscription subscription;
+            Throwable error;
+
+            Results(long initial) {
+                this.initial = initial;
+            }
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(initial);
+            }
+
+            @Override
+            public void onNext(ParseResult item) {
+                results.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                error = throwable;
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+
+        }
+
+        @Test
+        public void testOrderAndFailures() throws InterruptedException {
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 10_000; i++) {
+                lines.add(i % 3 == 0 ? "sqrt \"x\"" : "sqrt \"" + i + "\"");
+            }
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                ParseProcessor processor = new ParseProcessor(Scenarios.registry(), executor, 64);
+                Results results = new Results(Long.MAX_VALUE);
+                processor.subscribe(results);
+                new Lines(lines).subscribe(processor);
+                Assertions.assertTrue(results.done.await(10, TimeUnit.SECONDS));
+                Assertions.assertNull(results.error);
+                Assertions.assertEquals(lines.size(), results.results.size());
+                for (int i = 0; i < lines.size(); i++) {
+                    ParseResult result = results.results.get(i);
+                    if (i % 3 == 0) {
+                        Assertions.assertEquals(ParseError.INVALID_ARGUMENT, result.getError());
+                    } else {
+                        Assertions.assertEquals(i, result.getCommand().getInt(0));
+                    }
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        public void testBackpressure() {
+            Lines lines = new Lines(List.of("add \"1\" \"2\"", "calc sqrt", "sqrt", "sqrt \"4\"", "calc", "sqrt \"9\""));
+            ParseProcessor processor = new ParseProcessor(Scenarios.registry().get("sqrt"), Runnable::run, 2);
+            Results results = new Results(1);
+            processor.subscribe(results);
+            lines.subscribe(processor);
+            Assertions.assertEquals(1, results.results.size());
+            Assertions.assertEquals(ParseError.INVALID_FORMAT, results.results.get(0).getError());
+            Assertions.assertEquals(1, lines.requested.get());
+            results.subscription.request(3);
+            Assertions.assertEquals(4, results.results.size());
+            Assertions.assertEquals(4, results.results.get(3).getCommand().getInt(0));
+            Assertions.assertTrue(lines.requested.get() <= 6);
+            Assertions.assertEquals(1, results.done.getCount());
+            results.subscription.request(10);
+            Assertions.assertEquals(6, results.results.size());
+            Assertions.assertEquals(0, results.done.getCount());
+            Assertions.assertNull(results.error);
+        }
+
+        @Test
+        public void testCancel() {
+            Lines lines = new Lines(List.of("sqrt \"1\"", "sqrt \"2\"", "sqrt \"3\""));
+            ParseProcessor processor = new ParseProcessor(Scenarios.registry(), Runnable::run, 8);
+            Results results = new Results(1);
+            processor.subscribe(results);
+            lines.subscribe(processor);
+            results.subscription.cancel();
+            results.subscription.request(5);
+            Assertions.assertEquals(1, results.results.size());
+            Assertions.assertTrue(lines.cancelled);
+        }
+
+        @Test
+        public void testCancelWhileRequesting() throws InterruptedException {
+            CountDownLatch requesting = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch cancelled = new CountDownLatch(1);
+            AtomicInteger calls = new AtomicInteger();
+            AtomicInteger overlaps = new AtomicInteger();
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                ParseProcessor processor = new ParseProcessor(Scenarios.registry(), executor, 8);
+                Results results = new Results(1);
+                processor.subscribe(results);
+                processor.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        if (calls.getAndIncrement() != 0) {
+                            overlaps.incrementAndGet();
+                        }
+                        requesting.countDown();
+                        try {
+                            release.await(10, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        calls.decrementAndGet();
+                    }
+
+                    @Override
+                    public void cancel() {
+                        if (calls.getAndIncrement() != 0) {
+                            overlaps.incrementAndGet();
+                        }
+                        calls.decrementAndGet();
+                        cancelled.countDown();
+                    }
+                });
+                Assertions.assertTrue(requesting.await(10, TimeUnit.SECONDS));
+                results.subscription.cancel();
+                release.countDown();
+                Assertions.assertTrue(cancelled.await(10, TimeUnit.SECONDS));
+                Assertions.assertEquals(0, overlaps.get());
+            } finally {
+                executor.shutdown();
+            }
+        }
+
+        @Test
+        public void testInvalidRequest() {
+            Lines lines = new Lines(List.of("sqrt \"1\""));
+            ParseProcessor processor = new ParseProcessor(Scenarios.registry(), Runnable::run, 8);
+            Results results = new Results(0);
+            processor.subscribe(results);
+            lines.subscribe(processor);
+            Assertions.assertTrue(results.error instanceof IllegalArgumentException);
+            Assertions.assertTrue(lines.cancelled);
+        }
+
+        @Test
+        public void testSingleSubscriber() {
+            ParseProcessor processor = new ParseProcessor(Scenarios.registry(), Runnable::run, 8);
+            processor.subscribe(new Results(1));
+            Results second = new Results(1);
+            processor.subscribe(second);
+            Assertions.assertTrue(second.error instanceof IllegalStateException);
+        }
+
+    }
+
+    @Nested
+    class Suggestions {
+
+        @ParameterizedTest
+        @MethodSource
+        public void testSuggestions(String name, String input, ParseError error, List<String> suggestions) {
+            ParseResult result = Scenarios.registry().parseResult(input);
+            Assertions.assertEquals(error, result.getError());
+            Assertions.assertEquals(suggestions, result.getSuggestions());
+        }
+
+        public static Stream<Arguments> testSuggestions() {
+            return Stream.of(
+                Arguments.of("Flag Substitution", "sub --lefy \"1.0\" \"2.0\"", ParseError.INVALID_FLAG, List.of("--left")),
+                Arguments.of("Flag Transposition", "setUserRole --epxires \"2024-01-01\" \"u\"", ParseError.INVALID_FLAG, List.of("--expires")),
+                Arguments.of("Flag Two Edits", "registerUser --pasword \"x\" \"a\" \"b\"", ParseError.INVALID_FLAG, List.of("--password")),
+                Arguments.of("Subcommand", "calc sqtr", ParseError.INVALID_FORMAT, List.of("sqrt")),
+                Arguments.of("Several Subcommands", "calc sbu", ParseError.INVALID_FORMAT, List.of("sub")),
+                Arguments.of("Command", "ad \"1\" \"2\"", ParseError.UNKNOWN_COMMAND, List.of("add")),
+                Arguments.of("Too Far", "sub --right \"1.0\" \"2.0\"", ParseError.INVALID_FLAG, List.of()),
+                Arguments.of("Other Error", "sub \"x\"", ParseError.INVALID_ARGUMENT, List.of())
+            );
+        }
+
+        @Test
+        public void testMessage() {
+            Assertions.assertEquals("Error: Invalid flag. Did you mean --left?",
+                    Scenarios.registry().parseResult("sub --lfet \"1.0\" \"2.0\"").getMessage());
+            Assertions.assertEquals("Error: Invalid argument", Scenarios.registry().parseResult("sqrt \"x\"").getMessage());
+            Assertions.assertNull(Scenarios.registry().parseResult("sqrt \"4\"").getMessage());
+        }
+
+        @Test
+        public void testContext() {
+            ParseContext context = new ParseContext();
+            Assertions.assertNull(Scenarios.registry().parse("calc ad", context));
+            Assertions.assertEquals(List.of("add"), context.getSuggestions());
+        }
+
+        @Test
+        public void testLargeIndex() {
+            List<String> names = new ArrayList<>();
+            CliParser parser = new CliParser("tool", false);
+            Random random = new Random(42);
+            for (int i = 0; i < 20_000; i++) {
+                String name = Integer.toString(random.nextInt(1 << 30), 36);
+                names.add(name);
+                parser.addFlag(name, null);
+            }
+            CompiledParser compiled = parser.compile();
+            for (int i = 0; i < 200; i++) {
+                char[] typo = names.get(random.nextInt(names.size())).toCharArray();
+                int at = random.nextInt(typo.length);
+                typo[at] = (char) ('a' + random.nextInt(26));
+                String input = new String(typo);
+                if (names.contains(input)) {
+                    continue;
+                }
+                int limit = input.length() < 6 ? 1 : 2;
+                List<String> expected = names.stream().distinct()
+                        .filter(name -> distance(input, name) <= limit)
+                        .sorted(Comparator.comparingInt((String name) -> distance(input, name)).thenComparing(name -> name))
+                        .limit(3).map(name -> "--" + name).collect(Collectors.toList());
+                Assertions.assertEquals(expected, compiled.parseResult("tool --" + input).getSuggestions(), input);
+            }
+        }
+
+        /*
+         * Edit distance with adjacent transpositions, computed in full.
+         */
+        private static int distance(String a, String b) {
+            int[][] d = new int[a.length() + 1][b.length() + 1];
+            for (int i = 0; i <= a.length(); i++) {
+                for (int j = 0; j <= b.length(); j++) {
+                    if (i == 0 || j == 0) {
+                        d[i][j] = i + j;
+                        continue;
+                    }
+                    int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                    d[i][j] = Math.min(Math.min(d[i - 1][j], d[i][j - 1]) + 1, d[i - 1][j - 1] + cost);
+                    if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                        d[i][j] = Math.min(d[i][j], d[i - 2][j - 2] + 1);
+                    }
+                }
+            }
+            return d[a.length()][b.length()];
+        }
+
+    }
+
+    @Nested
+    class Table {
+
+        enum Room { ATRIUM, LIBRARY }
+
+        private final CompiledParser parser = new CliParser("scheduleEvent", false)
+                .addArg(LocalDate.class).addArg(String.class)
+                .addFlag("location", String.class).addFlag("reminder", Integer.class)
+                .addFlag("room", Room.class).addFlag("urgent", null).compile();
+
+        @Test
+        public void testColumns() {
+            CommandTable table = parser.parseTable(List.of(
+                    "scheduleEvent --location \"Room A\" --reminder \"15\" \"2023-11-25\" \"Meeting\"",
+                    "scheduleEvent --urgent \"2023-11-26\" \"Meeting\"",
+                    "scheduleEvent \"2023-02-30\" \"Review\"",
+                    "scheduleEvent --room \"LIBRARY\" --location \"Room A\" \"1970-01-01\" \"Say \\\"hi\\\"\""));
+            Assertions.assertEquals(4, table.getRowCount());
+            Assertions.assertEquals(LocalDate.of(2023, 11, 25).toEpochDay(), table.getLong(0, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> table.getInt(0, 0));
+            Assertions.assertEquals(LocalDate.of(2023, 11, 26), table.get(1, 0, LocalDate.class));
+            Assertions.assertEquals(table.getCode(0, 1), table.getCode(1, 1));
+            Assertions.assertEquals("Say \"hi\"", table.getString(3, 1));
+            Assertions.assertEquals(List.of("Meeting", "Say \"hi\""), table.getDictionary(1));
+            Assertions.assertEquals("Room A", table.getString(3, "location"));
+            Assertions.assertEquals(15, table.getInt(0, "reminder"));
+            Assertions.assertEquals(Room.LIBRARY, table.get(3, "room", Room.class));
+            Assertions.assertTrue(table.hasFlag(1, "urgent"));
+            Assertions.assertFalse(table.hasFlag(0, "urgent"));
+            Assertions.assertThrows(NoSuchElementException.class, () -> table.getInt(1, "reminder"));
+            Assertions.assertEquals(ParseError.INVALID_ARGUMENT, table.getError(2));
+            Assertions.assertFalse(table.hasFlag(2, "urgent"));
+            Assertions.assertThrows(NoSuchElementException.class, () -> table.getLong(2, 0));
+            Assertions.assertThrows(IllegalArgumentException.class, () -> table.getCode(0, 0));
+            Assertions.assertThrows(UnsupportedOperationException.class, () -> table.getDictionary("location").clear());
+        }
+
+        @Test
+        public void testInvalidObjectLeavesNoTrace() {
+            CompiledParser lazy = new CliParser("book", false).setLazy(true)
+                    .addArg(Integer.class).addFlag("room", Room.class).compile();
+            CommandTable table = lazy.parseTable(List.of(
+                    "book --room \"CELLAR\" \"1\"", "book \"two\"", "book --room \"ATRIUM\" \"3\""));
+            Assertions.assertEquals(ParseError.INVALID_ARGUMENT, table.getError(0));
+            Assertions.assertEquals(ParseError.INVALID_ARGUMENT, table.getError(1));
+            Assertions.assertEquals(3, table.getInt(2, 0));
+            Assertions.assertEquals(0, table.getCode(2, "room"));
+            Assertions.assertEquals(List.of(Room.ATRIUM), table.getDictionary("room"));
+        }
+
+        @Test
+        public void testMatchesCommands() {
+            Random random = new Random(7);
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 2_000; i++) {
+                StringBuilder line = new StringBuilder("scheduleEvent");
+                if (random.nextBoolean()) {
+                    line.append(" --location \"Room ").append(random.nextInt(5)).append('"');
+                }
+                if (random.nextBoolean()) {
+                    line.append(" --reminder \"").append(random.nextInt(120) - 10).append('"');
+                }
+                if (random.nextInt(4) == 0) {
+                    line.append(" --room \"").append(random.nextBoolean() ? "ATRIUM" : "attic").append('"');
+                }
+                line.append(" \"2024-0").append(1 + random.nextInt(9)).append("-3").append(random.nextInt(3)).append('"');
+                line.append(" \"Event ").append(random.nextInt(50)).append('"');
+                lines.add(line.toString());
+            }
+            CommandTable table = parser.parseTable(lines);
+            List<ParseResult> results = parser.parseAll(lines);
+            for (int row = 0; row < lines.size(); row++) {
+                Assertions.assertEquals(results.get(row).getError(), table.getError(row), lines.get(row));
+                Command command = results.get(row).getCommand();
+                if (command == null) {
+                    continue;
+                }
+                Assertions.assertEquals(command.getLong(0), table.getLong(row, 0));
+                Assertions.assertEquals(command.getString(1), table.getString(row, 1));
+                for (String flag : List.of("location", "reminder", "room", "urgent")) {
+                    Assertions.assertEquals(command.hasFlag(flag), table.hasFlag(row, flag));
+                    if (command.hasFlag(flag)) {
+                        Assertions.assertEquals(command.get(flag, Object.class), table.get(row, flag, Object.class));
+                    }
+                }
+            }
+        }
+
+        @Test
+        public void testBytesPerRow() {
+            ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return;
+            }
+            threads.setThreadAllocatedMemoryEnabled(true);
+            List<String> lines = new ArrayList<>();
+            for (int i = 0; i < 100_000; i++) {
+                lines.add("scheduleEvent --location \"Room " + i % 10 + "\" --reminder \"" + i % 60 + "\" \"2023-11-25\" \"Meeting\"");
+            }
+            parser.parseTable(lines.subList(0, 1_000));
+            long before = threads.getCurrentThreadAllocatedBytes();
+            CommandTable table = parser.parseTable(lines);
+            long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            Assertions.assertEquals(10, table.getDictionary("location").size());
+            Assertions.assertTrue(allocated / lines.size() <= 32, allocated + " bytes");
+        }
+
+    }
+
+    @Nested
+    class Scanner {
+
+        @Test
+        public void testLoaded() {
+            if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+                Assertions.assertEquals("VectorDelimiterScanner", DelimiterScanner.INSTANCE.getClass().getSimpleName());
+            } else {
+                Assertions.assertSame(DelimiterScanner.SCALAR, DelimiterScanner.INSTANCE);
+            }
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        public void testMatchesScalar(String name, char filler) {
+            Random random = new Random(filler);
+            for (int length : new int[]{1, 63, 64, 65, 200, 1024, 1100, 5000}) {
+                char[] chars = new char[length];
+                Arrays.fill(chars, filler);
+                for (int i = 0; i < 3; i++) {
+                    chars[random.nextInt(length)] = "\"\\ ".charAt(random.nextInt(3));
+                }
+                String text = new String(chars);
+                List<CharSequence> inputs = new ArrayList<>(List.of(text, new StringBuilder(text)));
+                if (filler < 0x80) {
+                    byte[] bytes = ("xx" + text).getBytes(StandardCharsets.ISO_8859_1);
+                    inputs.add(new ByteCharSequence(ByteBuffer.wrap(bytes, 1, bytes.length - 1).slice(), 1, length));
+                    ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+                    inputs.add(new ByteCharSequence(direct, 2, length));
+                }
+                for (CharSequence input : inputs) {
+                    for (int from = 0; from <= length; from += 1 + random.nextInt(40)) {
+                        Assertions.assertEquals(DelimiterScanner.SCALAR.findQuoteOrBackslash(input, from, length),
+                                DelimiterScanner.INSTANCE.findQuoteOrBackslash(input, from, length), name + " " + length);
+                        Assertions.assertEquals(DelimiterScanner.SCALAR.findSpace(input, from, length),
+                                DelimiterScanner.INSTANCE.findSpace(input, from, length), name + " " + length);
+                    }
+                }
+            }
+        }
+
+        public static Stream<Arguments> testMatchesScalar() {
+            return Stream.of(
+                Arguments.of("Ascii", 'a'),
+                Arguments.of("Low Byte Of Quote", '\u0122'),
+                Arguments.of("Low Byte Of Space", '\u4e20'),
+                Arguments.of("Negative Short", '\uff5c')
+            );
+        }
+
+        @Test
+        public void testLongPayload() {
+            StringBuilder json = new StringBuilder("{");
+            for (int i = 0; i < 2_000; i++) {
+                json.append(i == 0 ? "" : ",").append("\\\"key").append(i).append("\\\": \\\"").append("v".repeat(i % 7)).append("\\\"");
+            }
+            json.append('}');
+            String base64 = "QUJD".repeat(3_000);
+            String input = "post --body \"" + json + "\" --raw \"" + base64 + "\" \"" + base64 + "\\\\\"";
+            CompiledParser parser = new CliParser("post", false).addFlag("body", String.class)
+                    .addFlag("raw", String.class).addArg(String.class).compile();
+            Command command = parser.parseResult(input).getCommand();
+            Assertions.assertTrue(command.getString("body").startsWith("{\"key0\": \"\",\"key1\": \"v\""));
+            Assertions.assertEquals(base64, command.getString("raw"));
+            Assertions.assertEquals(base64 + "\\", command.getString(0));
+            Tokens tokens = new Tokens();
+            Assertions.assertFalse(Tokenizer.tokenize(input, 0, input.length() - 1, tokens));
+            Assertions.assertEquals(ParseError.MALFORMED_TOKEN, tokens.error);
+        }
+
+    }
+
+    @FunctionalInterface
+    interface ServerTest {
+
+        void run(SocketAddress address) throws Exception;
+
+    }
+
+}
@@ -0,0 +1,162 @@
+package oop.project.cli;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class ConvertersTests {
+
+    @Nested
+    class Numbers {
+
+        @ParameterizedTest
+        @MethodSource
+        public void testInt(String name, String input, Integer expected) {
+            Assertions.assertEquals(expected, Converters.INT.convert("x" + input + "x", 1, input.length() + 1));
+        }
+
+        public static Stream<Arguments> testInt() {
+            return Stream.of(
+                Arguments.of("Zero", "0", 0),
+                Arguments.of("Signed", "-15", -15),
+                Arguments.of("Plus", "+15", 15),
+                Arguments.of("Max", "2147483647", Integer.MAX_VALUE),
+                Arguments.of("Min", "-2147483648", Integer.MIN_VALUE),
+                Arguments.of("Overflow", "2147483648", null),
+                Arguments.of("Decimal", "1.0", null),
+                Arguments.of("Sign Only", "-", null),
+                Arguments.of("Empty", "", null)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        public void testDouble(String name, String input, Double expected) {
+            Assertions.assertEquals(expected, Converters.DOUBLE.convert(input, 0, input.length()));
+        }
+
+        public static Stream<Arguments> testDouble() {
+            return Stream.of(
+                Arguments.of("Integer", "2", 2.0),
+                Arguments.of("Fraction", "-0.05", -0.05),
+                Arguments.of("Leading Dot", ".5", 0.5),
+                Arguments.of("Exponent", "1.5e-3", 1.5e-3),
+                Arguments.of("Long Mantissa", "3.14159265358979323846", 3.14159265358979323846),
+                Arguments.of("Large Exponent", "1e300", 1e300),
+                Arguments.of("Dot Only", ".", null),
+                Arguments.of("Missing Exponent", "1e", null),
+                Arguments.of("Trailing Text", "1.0x", null)
+            );
+        }
+
+    }
+
+    @Nested
+    class Registry {
+
+        enum Color { RED, GREEN }
+
+        @Test
+        public void testEnum() {
+            CompiledParser parser = new CliParser("paint", false).addArg(Color.class).compile();
+            Assertions.assertEquals(Color.GREEN, parser.parseResult("paint \"GREEN\"").getCommand().getArgs().get(0));
+            Assertions.assertEquals(ParseError.INVALID_ARGUMENT, parser.parseResult("paint \"BLUE\"").getError());
+        }
+
+        @Test
+        public void testCustomType() {
+            CompiledParser parser = new CliParser("lookup", false)
+                    .registerConverter(UUID.class, (input, start, end) -> {
+                        try {
+                            return UUID.fromString(input.subSequence(start, end).toString());
+                        } catch (IllegalArgumentException e) {
+                            return null;
+                        }
+                    })
+                    .addFlag("id", UUID.class).compile();
+            UUID id = UUID.randomUUID();
+            Command command = parser.parseResult("lookup --id \"" + id + "\"").getCommand();
+            Assertions.assertEquals(id, command.getFlags().get("id").getArg().get());
+        }
+
+        @Test
+        public void testUnregisteredType() {
+            CliParser parser = new CliParser("lookup", false).addArg(UUID.class);
+            Assertions.assertThrows(IllegalArgumentException.class, parser::compile);
+        }
+
+    }
+
+    @Nested
+    class Temporal {
+
+        @ParameterizedTest
+        @MethodSource
+        public void testLocalDate(String name, String input, LocalDate expected) {
+            Assertions.assertEquals(expected, TemporalConverters.LOCAL_DATE.convert(input, 0, input.length()));
+        }
+
+        public static Stream<Arguments> testLocalDate() {
+            return Stream.of(
+                Arguments.of("Date", "2024-01-31", LocalDate.of(2024, 1, 31)),
+                Arguments.of("Leap Day", "2024-02-29", LocalDate.of(2024, 2, 29)),
+                Arguments.of("Extended Year", "+10000-01-01", LocalDate.of(10000, 1, 1)),
+                Arguments.of("Negative Year", "-0001-12-31", LocalDate.of(-1, 12, 31)),
+                Arguments.of("Not Leap Year", "1900-02-29", null),
+                Arguments.of("Invalid Month", "2024-13-01", null),
+                Arguments.of("Unsigned Extended Year", "10000-01-01", null),
+                Arguments.of("Short Day", "2024-01-1", null),
+                Arguments.of("Trailing Text", "2024-01-31x", null)
+            );
+        }
+
+        @ParameterizedTest
+        @MethodSource
+        public void testTemporal(String name, Converter<?> converter, String input, Object expected) {
+            Assertions.assertEquals(expected, converter.convert(input, 0, input.length()));
+        }
+
+        public static Stream<Arguments> testTemporal() {
+            return Stream.of(
+                Arguments.of("Date Time", TemporalConverters.LOCAL_DATE_TIME, "2024-01-31T10:15", LocalDateTime.of(2024, 1, 31, 10, 15)),
+                Arguments.of("Date Time Nanos", TemporalConverters.LOCAL_DATE_TIME, "2024-01-31T10:15:30.000000001", LocalDateTime.of(2024, 1, 31, 10, 15, 30, 1)),
+                Arguments.of("Invalid Hour", TemporalConverters.LOCAL_DATE_TIME, "2024-01-31T24:00", null),
+                Arguments.of("Instant", TemporalConverters.INSTANT, "2024-01-31T10:15:30Z", Instant.parse("2024-01-31T10:15:30Z")),
+                Arguments.of("Instant Offset", TemporalConverters.INSTANT, "2024-01-31T12:15:30.5+02:00", Instant.parse("2024-01-31T10:15:30.5Z")),
+                Arguments.of("Instant Without Zone", TemporalConverters.INSTANT, "2024-01-31T10:15:30", null),
+                Arguments.of("Instant End Of Day", TemporalConverters.INSTANT, "2024-01-01T24:00:00+02:00", Instant.parse("2024-01-01T22:00:00Z")),
+                Arguments.of("Instant After End Of Day", TemporalConverters.INSTANT, "2024-01-01T24:00:00.5Z", null),
+                Arguments.of("Instant Leap Second", TemporalConverters.INSTANT, "2016-12-31T23:59:60.5Z", Instant.parse("2016-12-31T23:59:59.5Z")),
+                Arguments.of("Instant Invalid Leap Second", TemporalConverters.INSTANT, "2016-12-31T10:15:60Z", null),
+                Arguments.of("Epoch Seconds", TemporalConverters.EPOCH_SECONDS, "-86400", Instant.parse("1969-12-31T00:00:00Z")),
+                Arguments.of("Duration", TemporalConverters.DURATION, "P2DT3H4M", Duration.ofDays(2).plusHours(3).plusMinutes(4)),
+                Arguments.of("Negative Seconds", TemporalConverters.DURATION, "-PT1.5S", Duration.ofMillis(-1500)),
+                Arguments.of("Signed Fraction", TemporalConverters.DURATION, "PT-0.5S", Duration.ofMillis(-500)),
+                Arguments.of("Empty Time", TemporalConverters.DURATION, "P1DT", null),
+                Arguments.of("Out Of Order", TemporalConverters.DURATION, "PT1M1H", null)
+            );
+        }
+
+        @Test
+        public void testPattern() {
+            CompiledParser parser = new CliParser("due", false)
+                    .registerConverter(LocalDate.class, TemporalConverters.ofPattern("dd/MM/uuuu", LocalDate::from))
+                    .addArg(LocalDate.class).compile();
+            Assertions.assertEquals(LocalDate.of(2024, 1, 31), parser.parseResult("due \"31/01/2024\"").getCommand().get(0, LocalDate.class));
+            Assertions.assertEquals(ParseError.INVALID_ARGUMENT, parser.parseResult("due \"2024-01-31\"").getError());
+            Assertions.assertEquals(ParseError.INVALID_ARGUMENT, parser.parseResult("due \"31/02/2024\"").getError());
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package oop.project.cli;
+
+import oop.project.cli.annotation.Command;
+import oop.project.cli.annotation.Flag;
+import oop.project.cli.annotation.Positional;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class GeneratedParserTests {
+
+    @Command("scheduleEvent")
+    record ScheduleEvent(@Positional LocalDate date, @Positional String title,
+                         @Flag Optional<String> location, @Flag("reminder") Optional<Integer> minutes) {}
+
+    @Command("sub")
+    record Sub(@Flag Double left, @Positional double right) {}
+
+    @Command("processData")
+    record ProcessData(@Flag Boolean validate, @Flag Optional<Boolean> clean, @Positional LocalDate since) {}
+
+    @Command("fileOperation")
+    static class FileOperation {
+        @Flag boolean force;
+        @Positional String file;
+    }
+
+    @ParameterizedTest
+    @MethodSource
+    public void testScheduleEvent(String name, String input, ScheduleEvent expected) {
+        Assertions.assertEquals(expected, GeneratedParserTests_ScheduleEventParser.parse(input));
+    }
+
+    public static Stream<Arguments> testScheduleEvent() {
+        LocalDate date = LocalDate.of(2023, 11, 25);
+        return Stream.of(
+            Arguments.of("Positional", "scheduleEvent \"2023-11-25\" \"Meeting\"",
+                    new ScheduleEvent(date, "Meeting", Optional.empty(), Optional.empty())),
+            Arguments.of("Flags", "scheduleEvent --location \"Room \\\"A\\\"\" --reminder \"15\" \"2023-11-25\" \"Meeting\"",
+                    new ScheduleEvent(date, "Meeting", Optional.of("Room \"A\""), Optional.of(15))),
+            Arguments.of("Invalid Date", "scheduleEvent \"2023-13-25\" \"Meeting\"", null),
+            Arguments.of("Invalid Reminder", "scheduleEvent --reminder \"soon\" \"2023-11-25\" \"Meeting\"", null),
+            Arguments.of("Unknown Flag", "scheduleEvent --priority \"1\" \"2023-11-25\" \"Meeting\"", null),
+            Arguments.of("Missing Argument", "scheduleEvent \"2023-11-25\"", null),
+            Arguments.of("Extra Argument", "scheduleEvent \"2023-11-25\" \"Meeting\" \"Extra\"", null),
+            Arguments.of("Wrong Command", "date \"2023-11-25\" \"Meeting\"", null)
+        );
+    }
+
+    @Test
+    public void testPrimitives() {
+        Assertions.assertEquals(new Sub(null, 2.5), GeneratedParserTests_SubParser.parse("sub \"2.5\""));
+        Assertions.assertEquals(new Sub(1.0, -2.0), GeneratedParserTests_SubParser.parse("sub --left \"1\" \"-2\""));
+        Assertions.assertNull(GeneratedParserTests_SubParser.parse("sub --left \"2.5\""));
+    }
+
+    @Test
+    public void testClass() {
+        TokenStream tokens = new TokenStream();
+        FileOperation operation = GeneratedParserTests_FileOperationParser.parse("fileOperation --force \"a.txt\"", tokens);
+        Assertions.assertTrue(operation.force);
+        Assertions.assertEquals("a.txt", operation.file);
+        operation = GeneratedParserTests_FileOperationParser.parse("fileOperation \"b.txt\"", tokens);
+        Assertions.assertFalse(operation.force);
+        Assertions.assertEquals("b.txt", operation.file);
+    }
+
+    @Test
+    public void testBooleanWrapperAndDate() {
+        LocalDate date = LocalDate.of(2024, 2, 29);
+        Assertions.assertEquals(new ProcessData(true, Optional.of(true), date),
+                GeneratedParserTests_ProcessDataParser.parse("processData --validate --clean \"2024-02-29\""));
+        Assertions.assertEquals(new ProcessData(false, Optional.empty(), date),
+                GeneratedParserTests_ProcessDataParser.parse("processData \"2024-02-29\""));
+        Assertions.assertNull(GeneratedParserTests_ProcessDataParser.parse("processData \"2023-02-29\""));
+    }
+
+    @Test
+    public void testMatchesCompiledParser() {
+        CompiledParser parser = new CliParser("sub", false).addFlag("left", Double.class).addArg(Double.class).compile();
+        for (String input : new String[]{"sub \"1\"", "sub --left \"1\" \"2\"", "sub \"1", "sub --left \"1\"", "sub x \"1\""}) {
+            Assertions.assertEquals(parser.parseResult(input).isSuccess(), GeneratedParserTests_SubParser.parse(input) != null, input);
+        }
+    }
+
+}
@@ -158,6 +158,8 @@ public class ScenariosTests {
             return Stream.of(
                     Arguments.of("Valid", "setUserRole --role \"admin\" \"john_doe\"",
                             Map.of("role", "admin", "expires", Optional.empty(), "username", "john_doe")),
+                    Arguments.of("Role And Expiry", "setUserRole --role \"admin\" --expires \"2023-12-31\" \"john_doe\"",
+                            Map.of("role", "admin", "expires", LocalDate.of(2023, 12, 31), "username", "john_doe")),
                     Arguments.of("Missing Username", "setUserRole --role \"admin\"", null)
             );
         }
@@ -186,6 +188,8 @@ public class ScenariosTests {
             return Stream.of(
                     Arguments.of("Valid", "scheduleEvent --reminder \"15\" \"2023-11-25\" \"Meeting\"",
                             Map.of("date", LocalDate.of(2023, 11, 25), "title", "Meeting", "location", Optional.empty(), "reminder", 15)),
+                    Arguments.of("Quoted Spaces", "scheduleEvent --location \"Conference Room A\" --reminder \"15\" \"2023-11-25\" \"Meeting\"",
+                            Map.of("date", LocalDate.of(2023, 11, 25), "title", "Meeting", "location", "Conference Room A", "reminder", 15)),
                     Arguments.of("Missing Date", "scheduleEvent --reminder \"15\" \"Meeting\"", null)
             );
         }
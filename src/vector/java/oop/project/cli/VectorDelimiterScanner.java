@@ -0,0 +1,157 @@
+package oop.project.cli;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+
+/*
+ * A DelimiterScanner that compares a whole vector of chars with the
+ * delimiters at once, using the preferred vector size of the platform.
+ * Strings are copied into a per-thread char array a block at a time with
+ * String.getChars, which is itself vectorized, and byte views are read
+ * straight from the array behind a heap buffer, or copied a block at a time
+ * from a direct one. The first MIN_LENGTH chars, and other kinds of
+ * CharSequence, are scanned one char at a time, since typical words and
+ * values end before a vector scan would pay for its setup.
+ *
+ * Compiled in its own source set with --add-modules jdk.incubator.vector
+ * and loaded reflectively by DelimiterScanner, so nothing else depends on
+ * the incubator module.
+ */
+final class VectorDelimiterScanner extends DelimiterScanner {
+
+    private static final VectorSpecies<Short> CHARS = ShortVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+    private static final int MIN_LENGTH = 64;
+    private static final int BLOCK = 1024;
+
+    private static final ThreadLocal<char[]> CHAR_BLOCKS = ThreadLocal.withInitial(() -> new char[BLOCK]);
+    private static final ThreadLocal<byte[]> BYTE_BLOCKS = ThreadLocal.withInitial(() -> new byte[BLOCK]);
+
+    VectorDelimiterScanner() {
+        if (CHARS.length() < 8) {
+            throw new UnsupportedOperationException("No vector support");
+        }
+    }
+
+    @Override
+    int findQuoteOrBackslash(CharSequence input, int from, int to) {
+        return find(input, from, to, '"', '\\');
+    }
+
+    @Override
+    int findSpace(CharSequence input, int from, int to) {
+        return find(input, from, to, ' ', ' ');
+    }
+
+    /*
+     * Returns the index of the first of delimiter or other in input[from, to),
+     * or max(from, to) if there is none.
+     */
+    private int find(CharSequence input, int from, int to, char delimiter, char other) {
+        int i = scan(input, from, Math.min(to, from + MIN_LENGTH), delimiter, other);
+        if (i >= to || input.charAt(i) == delimiter || input.charAt(i) == other) {
+            return i;
+        }
+        if (input instanceof String) {
+            return find((String) input, i, to, delimiter, other);
+        } else if (input instanceof ByteCharSequence) {
+            return find((ByteCharSequence) input, i, to, (byte) delimiter, (byte) other);
+        }
+        return scan(input, i, to, delimiter, other);
+    }
+
+    private static int find(String input, int from, int to, char delimiter, char other) {
+        char[] block = CHAR_BLOCKS.get();
+        for (int start = from; start < to; start += BLOCK) {
+            int length = Math.min(BLOCK, to - start);
+            input.getChars(start, start + length, block, 0);
+            int found = find(block, length, (short) delimiter, (short) other);
+            if (found >= 0) {
+                return start + found;
+            }
+        }
+        return to;
+    }
+
+    private static int find(ByteCharSequence input, int from, int to, byte delimiter, byte other) {
+        ByteBuffer buffer = input.buffer();
+        int base = input.offset();
+        if (buffer.hasArray()) {
+            int offset = buffer.arrayOffset() + base;
+            int found = find(buffer.array(), offset + from, offset + to, delimiter, other);
+            return found >= 0 ? found - offset : to;
+        }
+        byte[] block = BYTE_BLOCKS.get();
+        for (int start = from; start < to; start += BLOCK) {
+            int length = Math.min(BLOCK, to - start);
+            buffer.get(base + start, block, 0, length);
+            int found = find(block, 0, length, delimiter, other);
+            if (found >= 0) {
+                return start + found;
+            }
+        }
+        return to;
+    }
+
+    /*
+     * Returns the index of the first of delimiter or other in chars[0, length),
+     * or -1 if there is none.
+     */
+    private static int find(char[] chars, int length, short delimiter, short other) {
+        int i = 0;
+        for (int bound = CHARS.loopBound(length); i < bound; i += CHARS.length()) {
+            ShortVector vector = ShortVector.fromCharArray(CHARS, chars, i);
+            VectorMask<Short> found = vector.compare(VectorOperators.EQ, delimiter)
+                    .or(vector.compare(VectorOperators.EQ, other));
+            if (found.anyTrue()) {
+                return i + found.firstTrue();
+            }
+        }
+        for (; i < length; i++) {
+            if (chars[i] == delimiter || chars[i] == other) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Returns the index of the first of delimiter or other in bytes[from, to),
+     * or -1 if there is none.
+     */
+    private static int find(byte[] bytes, int from, int to, byte delimiter, byte other) {
+        int i = from;
+        for (int bound = from + BYTES.loopBound(to - from); i < bound; i += BYTES.length()) {
+            ByteVector vector = ByteVector.fromArray(BYTES, bytes, i);
+            VectorMask<Byte> found = vector.compare(VectorOperators.EQ, delimiter)
+                    .or(vector.compare(VectorOperators.EQ, other));
+            if (found.anyTrue()) {
+                return i + found.firstTrue();
+            }
+        }
+        for (; i < to; i++) {
+            if (bytes[i] == delimiter || bytes[i] == other) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int scan(CharSequence input, int from, int to, char delimiter, char other) {
+        int i = from;
+        while (i < to) {
+            char c = input.charAt(i);
+            if (c == delimiter || c == other) {
+                return i;
+            }
+            i++;
+        }
+        return i;
+    }
+
+}